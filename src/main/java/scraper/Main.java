@@ -3,10 +3,14 @@ package scraper;
 import org.openqa.selenium.WebDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import scraper.config.ScraperConfig;
 import scraper.database.DatabaseManager;
 import scraper.factory.ChromeDriverFactory;
 import scraper.factory.FirefoxDriverFactory;
+import scraper.factory.SeleniumReadinessProbe;
 import scraper.factory.WebDriverFactory;
+import scraper.http.PageFetcher;
+import scraper.logic.DatabaseManagerHelper;
 import scraper.logic.Scraper;
 
 import java.net.MalformedURLException;
@@ -22,35 +26,35 @@ public class Main {
         String dbUrl = System.getenv("DATASOURCE_URL");
         String dbUser = System.getenv("DATASOURCE_USERNAME");
         String dbPass = System.getenv("DATASOURCE_PASSWORD");
-        DatabaseManager databaseManager = new DatabaseManager(dbUrl, dbUser, dbPass);
+        ScraperConfig config = ScraperConfig.fromEnv(System.getenv());
+        PageFetcher pageFetcher = new PageFetcher(config);
         Logger scraperLogger = LoggerFactory.getLogger(Scraper.class);
         WebDriverFactory factory;
         WebDriver driver;
         Scraper scraper;
-        factory = getWebDriverFactory(choice);
-        driver = setupDriver(factory);
-        scraper = new Scraper(driver, baseUrl, carBrand, carModel, carGeneration, databaseManager, scraperLogger);
-        scraper.scrape();
+        DatabaseManagerHelper databaseManagerHelper = new DatabaseManagerHelper();
+        try (DatabaseManager databaseManager = new DatabaseManager(dbUrl, dbUser, dbPass, config, databaseManagerHelper)) {
+            databaseManager.upgradeSchema();
+            databaseManager.preloadLookups();
+            factory = getWebDriverFactory(choice, new SeleniumReadinessProbe(config.getSeleniumStartupTimeout()));
+            driver = setupDriver(factory);
+            scraper = new Scraper(driver, baseUrl, carBrand, carModel, carGeneration, databaseManager, scraperLogger, pageFetcher, config, databaseManagerHelper);
+            scraper.scrape();
+        }
     }
 
-    private static WebDriverFactory getWebDriverFactory(String choice) {
+    private static WebDriverFactory getWebDriverFactory(String choice, SeleniumReadinessProbe readinessProbe) {
         WebDriverFactory factory;
         if (choice.equals("Chrome")) {
-            factory = new ChromeDriverFactory();
+            factory = new ChromeDriverFactory(readinessProbe);
         } else {
-            factory = new FirefoxDriverFactory();
+            factory = new FirefoxDriverFactory(readinessProbe);
         }
         return factory;
     }
 
     private static WebDriver setupDriver(WebDriverFactory factory) throws MalformedURLException {
-        try {
-            System.out.println("Waiting for Selenium services to start");
-            Thread.sleep(10000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Startup delay interrupted", e);
-        }
+        System.out.println("Waiting for Selenium services to start");
         WebDriver driver = factory.createWebDriver();
         Runtime.getRuntime().addShutdownHook(new Thread(driver::quit));
         return driver;
@@ -0,0 +1,503 @@
+package scraper.config;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+public class ScraperConfig {
+    private final Duration httpConnectTimeout;
+    private final Duration httpRequestTimeout;
+    private final double requestsPerSecond;
+    private final int rateLimitBurst;
+    private final Duration rateLimitJitter;
+    private final boolean virtualThreads;
+    private final int maxInFlightRequests;
+    private final int linkQueueCapacity;
+    private final int stageQueueCapacity;
+    private final int parseThreads;
+    private final int persistBatchSize;
+    private final int fetchMaxAttempts;
+    private final Duration fetchBackoffBase;
+    private final Duration fetchBackoffMax;
+    private final int circuitWindowSize;
+    private final double circuitFailureRate;
+    private final Duration circuitOpenDuration;
+    private final Duration waitTimeout;
+    private final Duration waitPollInterval;
+    private final Duration seleniumStartupTimeout;
+    private final boolean cardPrefilter;
+    private final int maxEurPrice;
+    private final int dbPoolMinIdle;
+    private final int dbPoolMaxSize;
+    private final Duration dbConnectionTimeout;
+    private final Duration dbValidationTimeout;
+    private final Duration dbLeakDetectionThreshold;
+    private final int dbPrepareThreshold;
+    private final int dbStatementCacheQueries;
+    private final boolean bulkLoadMode;
+    private final Duration persistFlushInterval;
+    private final boolean incrementalCrawl;
+    private final int knownAdCutoff;
+    private final DayOfWeek fullCrawlDay;
+    private final Duration priceStatsRefreshInterval;
+    private final String selectorsFile;
+    private final boolean streamingParse;
+    private final int bulkLoadBatchSize;
+    private final Duration bulkLoadFlushInterval;
+
+    private ScraperConfig(Builder builder) {
+        this.httpConnectTimeout = builder.httpConnectTimeout;
+        this.httpRequestTimeout = builder.httpRequestTimeout;
+        this.requestsPerSecond = builder.requestsPerSecond;
+        this.rateLimitBurst = builder.rateLimitBurst;
+        this.rateLimitJitter = builder.rateLimitJitter;
+        this.virtualThreads = builder.virtualThreads;
+        this.maxInFlightRequests = builder.maxInFlightRequests;
+        this.linkQueueCapacity = builder.linkQueueCapacity;
+        this.stageQueueCapacity = builder.stageQueueCapacity;
+        this.parseThreads = builder.parseThreads != null ? builder.parseThreads : builder.defaultParseThreads();
+        this.persistBatchSize = builder.persistBatchSize;
+        this.fetchMaxAttempts = builder.fetchMaxAttempts;
+        this.fetchBackoffBase = builder.fetchBackoffBase;
+        this.fetchBackoffMax = builder.fetchBackoffMax;
+        this.circuitWindowSize = builder.circuitWindowSize;
+        this.circuitFailureRate = builder.circuitFailureRate;
+        this.circuitOpenDuration = builder.circuitOpenDuration;
+        this.waitTimeout = builder.waitTimeout;
+        this.waitPollInterval = builder.waitPollInterval;
+        this.seleniumStartupTimeout = builder.seleniumStartupTimeout;
+        this.cardPrefilter = builder.cardPrefilter;
+        this.maxEurPrice = builder.maxEurPrice;
+        this.dbPoolMinIdle = builder.dbPoolMinIdle;
+        this.dbPoolMaxSize = builder.dbPoolMaxSize;
+        this.dbConnectionTimeout = builder.dbConnectionTimeout;
+        this.dbValidationTimeout = builder.dbValidationTimeout;
+        this.dbLeakDetectionThreshold = builder.dbLeakDetectionThreshold;
+        this.dbPrepareThreshold = builder.dbPrepareThreshold;
+        this.dbStatementCacheQueries = builder.dbStatementCacheQueries;
+        this.bulkLoadMode = builder.bulkLoadMode;
+        this.persistFlushInterval = builder.persistFlushInterval;
+        this.incrementalCrawl = builder.incrementalCrawl;
+        this.knownAdCutoff = builder.knownAdCutoff;
+        this.fullCrawlDay = builder.fullCrawlDay;
+        this.priceStatsRefreshInterval = builder.priceStatsRefreshInterval;
+        this.selectorsFile = builder.selectorsFile;
+        this.streamingParse = builder.streamingParse;
+        this.bulkLoadBatchSize = builder.bulkLoadBatchSize;
+        this.bulkLoadFlushInterval = builder.bulkLoadFlushInterval;
+    }
+
+    public static ScraperConfig defaults() {
+        return new Builder().build();
+    }
+
+    public static ScraperConfig fromEnv(Map<String, String> env) {
+        Builder builder = new Builder();
+        if (env.containsKey("HTTP_CONNECT_TIMEOUT_MS")) {
+            builder.httpConnectTimeout(Duration.ofMillis(Long.parseLong(env.get("HTTP_CONNECT_TIMEOUT_MS"))));
+        }
+        if (env.containsKey("HTTP_REQUEST_TIMEOUT_MS")) {
+            builder.httpRequestTimeout(Duration.ofMillis(Long.parseLong(env.get("HTTP_REQUEST_TIMEOUT_MS"))));
+        }
+        if (env.containsKey("REQUESTS_PER_SECOND")) {
+            builder.requestsPerSecond(Double.parseDouble(env.get("REQUESTS_PER_SECOND")));
+        }
+        if (env.containsKey("RATE_LIMIT_BURST")) {
+            builder.rateLimitBurst(Integer.parseInt(env.get("RATE_LIMIT_BURST")));
+        }
+        if (env.containsKey("RATE_LIMIT_JITTER_MS")) {
+            builder.rateLimitJitter(Duration.ofMillis(Long.parseLong(env.get("RATE_LIMIT_JITTER_MS"))));
+        }
+        if (env.containsKey("FETCH_VIRTUAL_THREADS")) {
+            builder.virtualThreads(Boolean.parseBoolean(env.get("FETCH_VIRTUAL_THREADS")));
+        }
+        if (env.containsKey("MAX_IN_FLIGHT_REQUESTS")) {
+            builder.maxInFlightRequests(Integer.parseInt(env.get("MAX_IN_FLIGHT_REQUESTS")));
+        }
+        if (env.containsKey("LINK_QUEUE_CAPACITY")) {
+            builder.linkQueueCapacity(Integer.parseInt(env.get("LINK_QUEUE_CAPACITY")));
+        }
+        if (env.containsKey("STAGE_QUEUE_CAPACITY")) {
+            builder.stageQueueCapacity(Integer.parseInt(env.get("STAGE_QUEUE_CAPACITY")));
+        }
+        if (env.containsKey("PARSE_THREADS")) {
+            builder.parseThreads(Integer.parseInt(env.get("PARSE_THREADS")));
+        }
+        if (env.containsKey("PERSIST_BATCH_SIZE")) {
+            builder.persistBatchSize(Integer.parseInt(env.get("PERSIST_BATCH_SIZE")));
+        }
+        if (env.containsKey("FETCH_MAX_ATTEMPTS")) {
+            builder.fetchMaxAttempts(Integer.parseInt(env.get("FETCH_MAX_ATTEMPTS")));
+        }
+        if (env.containsKey("FETCH_BACKOFF_BASE_MS")) {
+            builder.fetchBackoffBase(Duration.ofMillis(Long.parseLong(env.get("FETCH_BACKOFF_BASE_MS"))));
+        }
+        if (env.containsKey("FETCH_BACKOFF_MAX_MS")) {
+            builder.fetchBackoffMax(Duration.ofMillis(Long.parseLong(env.get("FETCH_BACKOFF_MAX_MS"))));
+        }
+        if (env.containsKey("CIRCUIT_WINDOW_SIZE")) {
+            builder.circuitWindowSize(Integer.parseInt(env.get("CIRCUIT_WINDOW_SIZE")));
+        }
+        if (env.containsKey("CIRCUIT_FAILURE_RATE")) {
+            builder.circuitFailureRate(Double.parseDouble(env.get("CIRCUIT_FAILURE_RATE")));
+        }
+        if (env.containsKey("CIRCUIT_OPEN_MS")) {
+            builder.circuitOpenDuration(Duration.ofMillis(Long.parseLong(env.get("CIRCUIT_OPEN_MS"))));
+        }
+        if (env.containsKey("WAIT_TIMEOUT_MS")) {
+            builder.waitTimeout(Duration.ofMillis(Long.parseLong(env.get("WAIT_TIMEOUT_MS"))));
+        }
+        if (env.containsKey("WAIT_POLL_INTERVAL_MS")) {
+            builder.waitPollInterval(Duration.ofMillis(Long.parseLong(env.get("WAIT_POLL_INTERVAL_MS"))));
+        }
+        if (env.containsKey("SELENIUM_STARTUP_TIMEOUT_MS")) {
+            builder.seleniumStartupTimeout(Duration.ofMillis(Long.parseLong(env.get("SELENIUM_STARTUP_TIMEOUT_MS"))));
+        }
+        if (env.containsKey("CARD_PREFILTER")) {
+            builder.cardPrefilter(Boolean.parseBoolean(env.get("CARD_PREFILTER")));
+        }
+        if (env.containsKey("MAX_EUR_PRICE")) {
+            builder.maxEurPrice(Integer.parseInt(env.get("MAX_EUR_PRICE")));
+        }
+        if (env.containsKey("DATASOURCE_POOL_MIN_IDLE")) {
+            builder.dbPoolMinIdle(Integer.parseInt(env.get("DATASOURCE_POOL_MIN_IDLE")));
+        }
+        if (env.containsKey("DATASOURCE_POOL_MAX_SIZE")) {
+            builder.dbPoolMaxSize(Integer.parseInt(env.get("DATASOURCE_POOL_MAX_SIZE")));
+        }
+        if (env.containsKey("DATASOURCE_CONNECTION_TIMEOUT_MS")) {
+            builder.dbConnectionTimeout(Duration.ofMillis(Long.parseLong(env.get("DATASOURCE_CONNECTION_TIMEOUT_MS"))));
+        }
+        if (env.containsKey("DATASOURCE_VALIDATION_TIMEOUT_MS")) {
+            builder.dbValidationTimeout(Duration.ofMillis(Long.parseLong(env.get("DATASOURCE_VALIDATION_TIMEOUT_MS"))));
+        }
+        if (env.containsKey("DATASOURCE_LEAK_DETECTION_MS")) {
+            builder.dbLeakDetectionThreshold(Duration.ofMillis(Long.parseLong(env.get("DATASOURCE_LEAK_DETECTION_MS"))));
+        }
+        if (env.containsKey("DATASOURCE_PREPARE_THRESHOLD")) {
+            builder.dbPrepareThreshold(Integer.parseInt(env.get("DATASOURCE_PREPARE_THRESHOLD")));
+        }
+        if (env.containsKey("DATASOURCE_STATEMENT_CACHE_QUERIES")) {
+            builder.dbStatementCacheQueries(Integer.parseInt(env.get("DATASOURCE_STATEMENT_CACHE_QUERIES")));
+        }
+        if (env.containsKey("BULK_LOAD_MODE")) {
+            builder.bulkLoadMode(Boolean.parseBoolean(env.get("BULK_LOAD_MODE")));
+        }
+        if (env.containsKey("PERSIST_FLUSH_INTERVAL_MS")) {
+            builder.persistFlushInterval(Duration.ofMillis(Long.parseLong(env.get("PERSIST_FLUSH_INTERVAL_MS"))));
+        }
+        if (env.containsKey("INCREMENTAL_CRAWL")) {
+            builder.incrementalCrawl(Boolean.parseBoolean(env.get("INCREMENTAL_CRAWL")));
+        }
+        if (env.containsKey("KNOWN_AD_CUTOFF")) {
+            builder.knownAdCutoff(Integer.parseInt(env.get("KNOWN_AD_CUTOFF")));
+        }
+        if (env.containsKey("FULL_CRAWL_DAY")) {
+            String day = env.get("FULL_CRAWL_DAY").trim();
+            builder.fullCrawlDay(day.isEmpty() ? null : DayOfWeek.valueOf(day.toUpperCase(Locale.ROOT)));
+        }
+        if (env.containsKey("PRICE_STATS_REFRESH_INTERVAL_MS")) {
+            builder.priceStatsRefreshInterval(Duration.ofMillis(Long.parseLong(env.get("PRICE_STATS_REFRESH_INTERVAL_MS"))));
+        }
+        if (env.containsKey("SELECTORS_FILE")) {
+            builder.selectorsFile(env.get("SELECTORS_FILE"));
+        }
+        if (env.containsKey("STREAMING_PARSE")) {
+            builder.streamingParse(Boolean.parseBoolean(env.get("STREAMING_PARSE")));
+        }
+        if (env.containsKey("BULK_LOAD_BATCH_SIZE")) {
+            builder.bulkLoadBatchSize(Integer.parseInt(env.get("BULK_LOAD_BATCH_SIZE")));
+        }
+        if (env.containsKey("BULK_LOAD_FLUSH_INTERVAL_MS")) {
+            builder.bulkLoadFlushInterval(Duration.ofMillis(Long.parseLong(env.get("BULK_LOAD_FLUSH_INTERVAL_MS"))));
+        }
+        return builder.build();
+    }
+
+    public static class Builder {
+        private Duration httpConnectTimeout = Duration.ofSeconds(10);
+        private Duration httpRequestTimeout = Duration.ofSeconds(30);
+        private double requestsPerSecond = 5;
+        private int rateLimitBurst = 10;
+        private Duration rateLimitJitter = Duration.ofMillis(250);
+        private boolean virtualThreads = true;
+        private int maxInFlightRequests = 20;
+        private int linkQueueCapacity = 100;
+        private int stageQueueCapacity = 100;
+        private Integer parseThreads = null;
+        private int persistBatchSize = 50;
+        private int fetchMaxAttempts = 3;
+        private Duration fetchBackoffBase = Duration.ofMillis(500);
+        private Duration fetchBackoffMax = Duration.ofSeconds(10);
+        private int circuitWindowSize = 20;
+        private double circuitFailureRate = 0.5;
+        private Duration circuitOpenDuration = Duration.ofSeconds(30);
+        private Duration waitTimeout = Duration.ofSeconds(10);
+        private Duration waitPollInterval = Duration.ofMillis(100);
+        private Duration seleniumStartupTimeout = Duration.ofSeconds(60);
+        private boolean cardPrefilter = true;
+        private int maxEurPrice = 20000;
+        private int dbPoolMinIdle = 2;
+        private int dbPoolMaxSize = 10;
+        private Duration dbConnectionTimeout = Duration.ofSeconds(30);
+        private Duration dbValidationTimeout = Duration.ofSeconds(5);
+        private Duration dbLeakDetectionThreshold = Duration.ofSeconds(60);
+        private int dbPrepareThreshold = 1;
+        private int dbStatementCacheQueries = 256;
+        private boolean bulkLoadMode = false;
+        private Duration persistFlushInterval = Duration.ofSeconds(2);
+        private boolean incrementalCrawl = true;
+        private int knownAdCutoff = 0;
+        private DayOfWeek fullCrawlDay = DayOfWeek.SUNDAY;
+        private Duration priceStatsRefreshInterval = Duration.ofSeconds(60);
+        private String selectorsFile = null;
+        private boolean streamingParse = true;
+        private int bulkLoadBatchSize = 5000;
+        private Duration bulkLoadFlushInterval = Duration.ofMinutes(5);
+
+        public Builder httpConnectTimeout(Duration httpConnectTimeout) {
+            this.httpConnectTimeout = httpConnectTimeout;
+            return this;
+        }
+
+        public Builder httpRequestTimeout(Duration httpRequestTimeout) {
+            this.httpRequestTimeout = httpRequestTimeout;
+            return this;
+        }
+
+        public Builder requestsPerSecond(double requestsPerSecond) {
+            this.requestsPerSecond = requestsPerSecond;
+            return this;
+        }
+
+        public Builder rateLimitBurst(int rateLimitBurst) {
+            this.rateLimitBurst = rateLimitBurst;
+            return this;
+        }
+
+        public Builder rateLimitJitter(Duration rateLimitJitter) {
+            this.rateLimitJitter = rateLimitJitter;
+            return this;
+        }
+
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        public Builder maxInFlightRequests(int maxInFlightRequests) {
+            this.maxInFlightRequests = maxInFlightRequests;
+            return this;
+        }
+
+        public Builder linkQueueCapacity(int linkQueueCapacity) {
+            this.linkQueueCapacity = linkQueueCapacity;
+            return this;
+        }
+
+        public Builder stageQueueCapacity(int stageQueueCapacity) {
+            this.stageQueueCapacity = stageQueueCapacity;
+            return this;
+        }
+
+        public Builder parseThreads(int parseThreads) {
+            this.parseThreads = parseThreads;
+            return this;
+        }
+
+        public Builder persistBatchSize(int persistBatchSize) {
+            this.persistBatchSize = persistBatchSize;
+            return this;
+        }
+
+        public Builder fetchMaxAttempts(int fetchMaxAttempts) {
+            this.fetchMaxAttempts = fetchMaxAttempts;
+            return this;
+        }
+
+        public Builder fetchBackoffBase(Duration fetchBackoffBase) {
+            this.fetchBackoffBase = fetchBackoffBase;
+            return this;
+        }
+
+        public Builder fetchBackoffMax(Duration fetchBackoffMax) {
+            this.fetchBackoffMax = fetchBackoffMax;
+            return this;
+        }
+
+        public Builder circuitWindowSize(int circuitWindowSize) {
+            this.circuitWindowSize = circuitWindowSize;
+            return this;
+        }
+
+        public Builder circuitFailureRate(double circuitFailureRate) {
+            this.circuitFailureRate = circuitFailureRate;
+            return this;
+        }
+
+        public Builder circuitOpenDuration(Duration circuitOpenDuration) {
+            this.circuitOpenDuration = circuitOpenDuration;
+            return this;
+        }
+
+        public Builder waitTimeout(Duration waitTimeout) {
+            this.waitTimeout = waitTimeout;
+            return this;
+        }
+
+        public Builder waitPollInterval(Duration waitPollInterval) {
+            this.waitPollInterval = waitPollInterval;
+            return this;
+        }
+
+        public Builder seleniumStartupTimeout(Duration seleniumStartupTimeout) {
+            this.seleniumStartupTimeout = seleniumStartupTimeout;
+            return this;
+        }
+
+        public Builder cardPrefilter(boolean cardPrefilter) {
+            this.cardPrefilter = cardPrefilter;
+            return this;
+        }
+
+        public Builder maxEurPrice(int maxEurPrice) {
+            this.maxEurPrice = maxEurPrice;
+            return this;
+        }
+
+        public Builder dbPoolMinIdle(int dbPoolMinIdle) {
+            this.dbPoolMinIdle = dbPoolMinIdle;
+            return this;
+        }
+
+        public Builder dbPoolMaxSize(int dbPoolMaxSize) {
+            this.dbPoolMaxSize = dbPoolMaxSize;
+            return this;
+        }
+
+        public Builder dbConnectionTimeout(Duration dbConnectionTimeout) {
+            this.dbConnectionTimeout = dbConnectionTimeout;
+            return this;
+        }
+
+        public Builder dbValidationTimeout(Duration dbValidationTimeout) {
+            this.dbValidationTimeout = dbValidationTimeout;
+            return this;
+        }
+
+        public Builder dbLeakDetectionThreshold(Duration dbLeakDetectionThreshold) {
+            this.dbLeakDetectionThreshold = dbLeakDetectionThreshold;
+            return this;
+        }
+
+        public Builder dbPrepareThreshold(int dbPrepareThreshold) {
+            this.dbPrepareThreshold = dbPrepareThreshold;
+            return this;
+        }
+
+        public Builder dbStatementCacheQueries(int dbStatementCacheQueries) {
+            this.dbStatementCacheQueries = dbStatementCacheQueries;
+            return this;
+        }
+
+        public Builder bulkLoadMode(boolean bulkLoadMode) {
+            this.bulkLoadMode = bulkLoadMode;
+            return this;
+        }
+
+        public Builder persistFlushInterval(Duration persistFlushInterval) {
+            this.persistFlushInterval = persistFlushInterval;
+            return this;
+        }
+
+        public Builder incrementalCrawl(boolean incrementalCrawl) {
+            this.incrementalCrawl = incrementalCrawl;
+            return this;
+        }
+
+        public Builder knownAdCutoff(int knownAdCutoff) {
+            this.knownAdCutoff = knownAdCutoff;
+            return this;
+        }
+
+        public Builder fullCrawlDay(DayOfWeek fullCrawlDay) {
+            this.fullCrawlDay = fullCrawlDay;
+            return this;
+        }
+
+        public Builder priceStatsRefreshInterval(Duration priceStatsRefreshInterval) {
+            this.priceStatsRefreshInterval = priceStatsRefreshInterval;
+            return this;
+        }
+
+        public Builder selectorsFile(String selectorsFile) {
+            this.selectorsFile = selectorsFile;
+            return this;
+        }
+
+        public Builder streamingParse(boolean streamingParse) {
+            this.streamingParse = streamingParse;
+            return this;
+        }
+
+        public Builder bulkLoadBatchSize(int bulkLoadBatchSize) {
+            this.bulkLoadBatchSize = bulkLoadBatchSize;
+            return this;
+        }
+
+        public Builder bulkLoadFlushInterval(Duration bulkLoadFlushInterval) {
+            this.bulkLoadFlushInterval = bulkLoadFlushInterval;
+            return this;
+        }
+
+        private int defaultParseThreads() {
+            int cores = Runtime.getRuntime().availableProcessors();
+            return streamingParse ? Math.max(1, cores / 2) : cores;
+        }
+
+        public ScraperConfig build() {
+            return new ScraperConfig(this);
+        }
+    }
+
+    public Duration getHttpConnectTimeout() { return httpConnectTimeout; }
+    public Duration getHttpRequestTimeout() { return httpRequestTimeout; }
+    public double getRequestsPerSecond() { return requestsPerSecond; }
+    public int getRateLimitBurst() { return rateLimitBurst; }
+    public Duration getRateLimitJitter() { return rateLimitJitter; }
+    public boolean isVirtualThreads() { return virtualThreads; }
+    public int getMaxInFlightRequests() { return maxInFlightRequests; }
+    public int getLinkQueueCapacity() { return linkQueueCapacity; }
+    public int getStageQueueCapacity() { return stageQueueCapacity; }
+    public int getParseThreads() { return parseThreads; }
+    public int getPersistBatchSize() { return persistBatchSize; }
+    public int getFetchMaxAttempts() { return fetchMaxAttempts; }
+    public Duration getFetchBackoffBase() { return fetchBackoffBase; }
+    public Duration getFetchBackoffMax() { return fetchBackoffMax; }
+    public int getCircuitWindowSize() { return circuitWindowSize; }
+    public double getCircuitFailureRate() { return circuitFailureRate; }
+    public Duration getCircuitOpenDuration() { return circuitOpenDuration; }
+    public Duration getWaitTimeout() { return waitTimeout; }
+    public Duration getWaitPollInterval() { return waitPollInterval; }
+    public Duration getSeleniumStartupTimeout() { return seleniumStartupTimeout; }
+    public boolean isCardPrefilter() { return cardPrefilter; }
+    public int getMaxEurPrice() { return maxEurPrice; }
+    public int getDbPoolMinIdle() { return dbPoolMinIdle; }
+    public int getDbPoolMaxSize() { return dbPoolMaxSize; }
+    public Duration getDbConnectionTimeout() { return dbConnectionTimeout; }
+    public Duration getDbValidationTimeout() { return dbValidationTimeout; }
+    public Duration getDbLeakDetectionThreshold() { return dbLeakDetectionThreshold; }
+    public int getDbPrepareThreshold() { return dbPrepareThreshold; }
+    public int getDbStatementCacheQueries() { return dbStatementCacheQueries; }
+    public boolean isBulkLoadMode() { return bulkLoadMode; }
+    public Duration getPersistFlushInterval() { return persistFlushInterval; }
+    public boolean isIncrementalCrawl() { return incrementalCrawl; }
+    public int getKnownAdCutoff() { return knownAdCutoff; }
+    public DayOfWeek getFullCrawlDay() { return fullCrawlDay; }
+    public Duration getPriceStatsRefreshInterval() { return priceStatsRefreshInterval; }
+    public String getSelectorsFile() { return selectorsFile; }
+    public boolean isStreamingParse() { return streamingParse; }
+    public int getBulkLoadBatchSize() { return bulkLoadBatchSize; }
+    public Duration getBulkLoadFlushInterval() { return bulkLoadFlushInterval; }
+}
@@ -1,100 +1,334 @@
 package scraper.database;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import scraper.config.ScraperConfig;
 import scraper.logic.DatabaseManagerHelper;
 import scraper.model.CarDetails;
 
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.Date;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+public class DatabaseManager implements AutoCloseable {
+    static final String AD_TYPE_TABLE = "ad_type";
+    private static final String SCHEMA_UPGRADE = "/schema-upgrade.sql";
+    static final Map<String, Function<CarDetails, Object>> LOOKUP_VALUES = lookupValues();
+    static final List<String> LOOKUP_TABLES = List.copyOf(LOOKUP_VALUES.keySet());
+    static final List<String> FEATURE_TABLES = LOOKUP_TABLES.stream()
+            .filter(tableName -> !tableName.equals(AD_TYPE_TABLE))
+            .toList();
 
-public class DatabaseManager {
-    private final String dbUrl;
-    private final String dbUser;
-    private final String dbPassword;
-    private final DatabaseManagerHelper databaseManagerHelper = new DatabaseManagerHelper();
+    private final HikariDataSource dataSource;
+    private final boolean bulkLoadMode;
+    private final Map<String, Map<String, Integer>> lookupIds = new ConcurrentHashMap<>();
+    private final DatabaseManagerHelper databaseManagerHelper;
 
     public DatabaseManager(String dbUrl, String dbUser, String dbPassword) {
-        this.dbUrl = dbUrl;
-        this.dbUser = dbUser;
-        this.dbPassword = dbPassword;
+        this(dbUrl, dbUser, dbPassword, ScraperConfig.defaults());
+    }
+
+    public DatabaseManager(String dbUrl, String dbUser, String dbPassword, ScraperConfig config) {
+        this(dbUrl, dbUser, dbPassword, config, new DatabaseManagerHelper());
+    }
+
+    public DatabaseManager(String dbUrl, String dbUser, String dbPassword, ScraperConfig config,
+                           DatabaseManagerHelper databaseManagerHelper) {
+        this.dataSource = new HikariDataSource(poolConfig(dbUrl, dbUser, dbPassword, config));
+        this.bulkLoadMode = config.isBulkLoadMode();
+        this.databaseManagerHelper = databaseManagerHelper;
+    }
+
+    private static Map<String, Function<CarDetails, Object>> lookupValues() {
+        Map<String, Function<CarDetails, Object>> values = new LinkedHashMap<>();
+        values.put("wheel_side", CarDetails::getWheelSide);
+        values.put("nr_of_seats", CarDetails::getNrOfSeats);
+        values.put("body", CarDetails::getBody);
+        values.put("nr_of_doors", CarDetails::getNrOfDoors);
+        values.put("engine_capacity", CarDetails::getEngineCapacity);
+        values.put("horsepower", CarDetails::getHorsepower);
+        values.put("petrol_type", CarDetails::getPetrolType);
+        values.put("gears_type", CarDetails::getGearsType);
+        values.put("traction_type", CarDetails::getTractionType);
+        values.put("color", CarDetails::getColor);
+        values.put(AD_TYPE_TABLE, CarDetails::getAdType);
+        return Collections.unmodifiableMap(values);
+    }
+
+    static HikariConfig poolConfig(String dbUrl, String dbUser, String dbPassword, ScraperConfig config) {
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setPoolName("scraper-db");
+        hikariConfig.setJdbcUrl(dbUrl);
+        hikariConfig.setUsername(dbUser);
+        hikariConfig.setPassword(dbPassword);
+        hikariConfig.setMinimumIdle(config.getDbPoolMinIdle());
+        hikariConfig.setMaximumPoolSize(config.getDbPoolMaxSize());
+        hikariConfig.setConnectionTimeout(config.getDbConnectionTimeout().toMillis());
+        hikariConfig.setValidationTimeout(config.getDbValidationTimeout().toMillis());
+        hikariConfig.setLeakDetectionThreshold(config.getDbLeakDetectionThreshold().toMillis());
+        hikariConfig.setAutoCommit(false);
+        hikariConfig.addDataSourceProperty("prepareThreshold", config.getDbPrepareThreshold());
+        hikariConfig.addDataSourceProperty("preparedStatementCacheQueries", config.getDbStatementCacheQueries());
+        return hikariConfig;
     }
 
+    public void upgradeSchema() throws SQLException {
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            try {
+                stmt.execute(readResource(SCHEMA_UPGRADE));
+                int year = LocalDate.now().getYear();
+                ensurePriceHistoryPartition(conn, year);
+                ensurePriceHistoryPartition(conn, year + 1);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    void ensurePriceHistoryPartition(Connection conn, int year) throws SQLException {
+        String partition = "price_history_" + year;
+        try (PreparedStatement exists = conn.prepareStatement("SELECT to_regclass(?)")) {
+            exists.setString(1, partition);
+            try (ResultSet rs = exists.executeQuery()) {
+                if (rs.next() && rs.getString(1) != null) {
+                    return;
+                }
+            }
+        }
+        String range = "recorded_at >= '%d-01-01' AND recorded_at < '%d-01-01'".formatted(year, year + 1);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("LOCK TABLE price_history_default IN ACCESS EXCLUSIVE MODE");
+            stmt.execute("CREATE TABLE " + partition + " (LIKE price_history INCLUDING DEFAULTS)");
+            stmt.execute("WITH moved AS (DELETE FROM price_history_default WHERE " + range + " RETURNING *) "
+                    + "INSERT INTO " + partition + " SELECT * FROM moved");
+            stmt.execute("ALTER TABLE price_history ATTACH PARTITION " + partition
+                    + " FOR VALUES FROM ('%d-01-01') TO ('%d-01-01')".formatted(year, year + 1));
+        }
+    }
+
+    private static String readResource(String name) {
+        try (InputStream in = DatabaseManager.class.getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing classpath resource " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + name, e);
+        }
+    }
+
+    public void preloadLookups() throws SQLException {
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            for (String tableName : LOOKUP_TABLES) {
+                Map<String, Integer> ids = lookupIds(tableName);
+                try (ResultSet rs = stmt.executeQuery("SELECT id, \"name\" FROM " + tableName)) {
+                    while (rs.next()) {
+                        ids.put(rs.getString("name"), rs.getInt("id"));
+                    }
+                }
+            }
+            conn.commit();
+        }
+    }
+
+    public Map<String, Timestamp> findKnownAds(Collection<String> links) throws SQLException {
+        Map<String, Timestamp> known = new HashMap<>();
+        if (links.isEmpty()) {
+            return known;
+        }
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT link, update_date FROM cars WHERE link = ANY(?)")) {
+            stmt.setArray(1, conn.createArrayOf("text", links.toArray()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    known.put(rs.getString("link"), rs.getTimestamp("update_date"));
+                }
+            }
+            conn.commit();
+        }
+        return known;
+    }
+
+    public void assignMissingModel(Collection<String> links, String model) throws SQLException {
+        if (links.isEmpty()) {
+            return;
+        }
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "UPDATE cars SET model = ? WHERE link = ANY(?) AND model IS NULL")) {
+            stmt.setString(1, model);
+            stmt.setArray(2, conn.createArrayOf("text", links.toArray()));
+            stmt.executeUpdate();
+            conn.commit();
+        }
+    }
+
+    public void refreshPriceStats() throws SQLException {
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY price_stats");
+            conn.commit();
+        }
+    }
+
+    public PoolMetrics getPoolMetrics() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return new PoolMetrics(pool.getActiveConnections(), pool.getIdleConnections(),
+                pool.getTotalConnections(), pool.getThreadsAwaitingConnection());
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+
+    private static final String MERGE_CARS_SQL = """
+            deduped AS (
+                SELECT DISTINCT ON (link) * FROM input ORDER BY link, ord
+            ),
+            updated_cars AS (
+                UPDATE cars c
+                SET price_eur = d.price_eur, mileage = d.mileage, update_date = d.update_date,
+                    model = COALESCE(d.model, c.model)
+                FROM deduped d
+                WHERE c.link = d.link
+                  AND (c.price_eur, c.mileage, c.update_date) IS DISTINCT FROM (d.price_eur, d.mileage, d.update_date)
+                RETURNING c.id, c.price_eur, c.mileage, c.update_date
+            ),
+            inserted_cars AS (
+                INSERT INTO cars (link, name, model, region, mileage, price_eur, update_date, ad_type_id,
+                                  particularities_id)
+                SELECT link, name, model, region, mileage, price_eur, update_date, ad_type_id,
+                       nextval(pg_get_serial_sequence('particularities', 'id'))
+                FROM deduped d
+                WHERE NOT EXISTS (SELECT 1 FROM cars c WHERE c.link = d.link)
+                ON CONFLICT (link) DO NOTHING
+                RETURNING id, link, particularities_id, price_eur, mileage, update_date
+            ),
+            inserted_particularities AS (
+                INSERT INTO particularities (
+                    id, author, year_of_fabrication, wheel_side_id, nr_of_seats_id, body_id, nr_of_doors_id,
+                    engine_capacity_id, horsepower_id, petrol_type_id, gears_type_id, traction_type_id, color_id
+                )
+                SELECT c.particularities_id, d.author, d.year_of_fabrication, d.wheel_side_id, d.nr_of_seats_id,
+                       d.body_id, d.nr_of_doors_id, d.engine_capacity_id, d.horsepower_id, d.petrol_type_id,
+                       d.gears_type_id, d.traction_type_id, d.color_id
+                FROM inserted_cars c
+                JOIN deduped d USING (link)
+            )
+            INSERT INTO price_history (car_id, price_eur, mileage, update_date)
+            SELECT id, price_eur, mileage, update_date FROM updated_cars
+            UNION ALL
+            SELECT id, price_eur, mileage, update_date FROM inserted_cars
+            """;
+
+    private static final String COPY_STAGING_SQL = """
+            COPY cars_staging (
+                link, region, mileage, price_eur, update_date, ad_type, author, year_of_fabrication, wheel_side,
+                nr_of_seats, body, nr_of_doors, engine_capacity, horsepower, petrol_type, gears_type, traction_type,
+                color, name, model
+            ) FROM STDIN WITH (FORMAT csv)
+            """;
+
+    private static final String MERGE_STAGING_SQL = """
+            WITH input AS (
+                SELECT split_part(s.link, '?', 1) AS link, s.region, s.mileage, s.price_eur, s.update_date,
+                       ad.id AS ad_type_id, s.author, s.year_of_fabrication, ws.id AS wheel_side_id,
+                       ns.id AS nr_of_seats_id, b.id AS body_id, nd.id AS nr_of_doors_id,
+                       ec.id AS engine_capacity_id, hp.id AS horsepower_id, pt.id AS petrol_type_id,
+                       gt.id AS gears_type_id, tt.id AS traction_type_id, cl.id AS color_id,
+                       s.name, s.model, row_number() OVER () AS ord
+                FROM cars_staging s
+                LEFT JOIN ad_type ad ON ad."name" = s.ad_type
+                LEFT JOIN wheel_side ws ON ws."name" = s.wheel_side
+                LEFT JOIN nr_of_seats ns ON ns."name" = s.nr_of_seats
+                LEFT JOIN body b ON b."name" = s.body
+                LEFT JOIN nr_of_doors nd ON nd."name" = s.nr_of_doors
+                LEFT JOIN engine_capacity ec ON ec."name" = s.engine_capacity
+                LEFT JOIN horsepower hp ON hp."name" = s.horsepower
+                LEFT JOIN petrol_type pt ON pt."name" = s.petrol_type
+                LEFT JOIN gears_type gt ON gt."name" = s.gears_type
+                LEFT JOIN traction_type tt ON tt."name" = s.traction_type
+                LEFT JOIN color cl ON cl."name" = s.color
+            ),
+            """ + MERGE_CARS_SQL;
+
+    private static final String INSERT_CARS_SQL = """
+            WITH input AS (
+                SELECT * FROM unnest(
+                    ?::text[], ?::text[], ?::int[], ?::int[], ?::timestamp[], ?::int[], ?::text[], ?::int[],
+                    ?::int[], ?::int[], ?::int[], ?::int[], ?::int[], ?::int[], ?::int[], ?::int[], ?::int[], ?::int[],
+                    ?::text[], ?::text[]
+                ) WITH ORDINALITY AS t(
+                    link, region, mileage, price_eur, update_date, ad_type_id, author, year_of_fabrication,
+                    wheel_side_id, nr_of_seats_id, body_id, nr_of_doors_id, engine_capacity_id, horsepower_id,
+                    petrol_type_id, gears_type_id, traction_type_id, color_id, name, model, ord
+                )
+            ),
+            """ + MERGE_CARS_SQL;
+
     public void saveCars(List<CarDetails> finalProducts) throws SQLException {
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword)) {
+        if (finalProducts.isEmpty()) {
+            return;
+        }
+        if (bulkLoadMode) {
+            bulkLoadCars(finalProducts);
+            return;
+        }
+        try (Connection conn = dataSource.getConnection()) {
             conn.setAutoCommit(false);
+            try {
+                resolveLookups(conn, finalProducts);
+                try (PreparedStatement stmt = conn.prepareStatement(INSERT_CARS_SQL)) {
+                    bindCarColumns(conn, stmt, finalProducts);
+                    stmt.executeUpdate();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                lookupIds.clear();
+                throw e;
+            }
+        }
+    }
 
-            String insertParticularitiesSql = """
-            INSERT INTO particularities (
-                author, year_of_fabrication, wheel_side_id, nr_of_seats_id, body_id, nr_of_doors_id,
-                engine_capacity_id, horsepower_id, petrol_type_id,
-                gears_type_id, traction_type_id, color_id
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) RETURNING id
-        """;
-
-            String insertCarSql = """
-            INSERT INTO cars (
-                link, region, mileage, price_eur, update_date, ad_type_id, particularities_id
-            ) VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (link) DO NOTHING
-        """;
-
-            try (
-                    PreparedStatement particularitiesStmt = conn.prepareStatement(insertParticularitiesSql);
-                    PreparedStatement carsStmt = conn.prepareStatement(insertCarSql)
-            ) {
-                for (CarDetails car : finalProducts) {
-                    String cleanLink = car.getLink().split("\\?")[0];
-
-                    Integer wheelSideId = getOrInsertLookup(conn, "wheel_side", car.getWheelSide());
-                    Integer nrOfSeatsId = getOrInsertLookup(conn, "nr_of_seats", car.getNrOfSeats());
-                    Integer bodyId = getOrInsertLookup(conn, "body", car.getBody());
-                    Integer nrOfDoorsId = getOrInsertLookup(conn, "nr_of_doors", car.getNrOfDoors());
-                    Integer engineCapacityId = getOrInsertLookup(conn, "engine_capacity", car.getEngineCapacity());
-                    Integer horsepowerId = getOrInsertLookup(conn, "horsepower", car.getHorsepower());
-                    Integer petrolTypeId = getOrInsertLookup(conn, "petrol_type", car.getPetrolType());
-                    Integer gearsTypeId = getOrInsertLookup(conn, "gears_type", car.getGearsType());
-                    Integer tractionTypeId = getOrInsertLookup(conn, "traction_type", car.getTractionType());
-                    Integer colorId = getOrInsertLookup(conn, "color", car.getColor());
-
-                    setNullableString(particularitiesStmt, 1, car.getAuthor());
-                    setNullableInt(particularitiesStmt, 2, car.getYearOfFabrication());
-                    setNullableInt(particularitiesStmt, 3, wheelSideId);
-                    setNullableInt(particularitiesStmt, 4, nrOfSeatsId);
-                    setNullableInt(particularitiesStmt, 5, bodyId);
-                    setNullableInt(particularitiesStmt, 6, nrOfDoorsId);
-                    setNullableInt(particularitiesStmt, 7, engineCapacityId);
-                    setNullableInt(particularitiesStmt, 8, horsepowerId);
-                    setNullableInt(particularitiesStmt, 9, petrolTypeId);
-                    setNullableInt(particularitiesStmt, 10, gearsTypeId);
-                    setNullableInt(particularitiesStmt, 11, tractionTypeId);
-                    setNullableInt(particularitiesStmt, 12, colorId);
-
-                    ResultSet rs = particularitiesStmt.executeQuery();
-                    if (rs.next()) {
-                        long particularitiesId = rs.getLong("id");
-
-                        carsStmt.setString(1, cleanLink);
-                        setNullableString(carsStmt, 2, car.getRegion());
-                        setNullableInt(carsStmt, 3, car.getMileage());
-                        setNullableInt(carsStmt, 4, car.getEurPrice());
-                        Timestamp timestamp = databaseManagerHelper.parseRomanianDate(car.getUpdateDate());
-                        if (timestamp == null) {
-                            carsStmt.setNull(5, Types.TIMESTAMP);
-                        } else {
-                            carsStmt.setTimestamp(5, timestamp);
-                        }
-                        Integer adTypeId = getOrInsertLookup(conn, "ad_type", car.getAdType());
-                        setNullableInt(carsStmt, 6, adTypeId);
-                        carsStmt.setLong(7, particularitiesId);
-
-                        carsStmt.addBatch();
-                    }
+    public void bulkLoadCars(List<CarDetails> cars) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("TRUNCATE cars_staging");
+                copyToStaging(conn, cars);
+                for (String tableName : LOOKUP_TABLES) {
+                    stmt.addBatch("INSERT INTO " + tableName + " (\"name\") SELECT DISTINCT " + tableName
+                            + " FROM cars_staging WHERE " + tableName + " IS NOT NULL ON CONFLICT (\"name\") DO NOTHING");
                 }
-                carsStmt.executeBatch();
+                stmt.executeBatch();
+                stmt.executeUpdate(MERGE_STAGING_SQL);
+                stmt.execute("TRUNCATE cars_staging");
                 conn.commit();
             } catch (SQLException e) {
                 conn.rollback();
@@ -103,6 +337,91 @@ public class DatabaseManager {
         }
     }
 
+    void copyToStaging(Connection conn, List<CarDetails> cars) throws SQLException {
+        CopyIn copyIn = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING_SQL);
+        try {
+            StringBuilder row = new StringBuilder(256);
+            for (CarDetails car : cars) {
+                row.setLength(0);
+                appendCsv(row, car.getLink());
+                appendCsv(row, car.getRegion());
+                appendCsv(row, car.getMileage());
+                appendCsv(row, car.getEurPrice());
+                appendCsv(row, databaseManagerHelper.parseRomanianDate(car.getUpdateDate()));
+                appendCsv(row, car.getAdType());
+                appendCsv(row, car.getAuthor());
+                appendCsv(row, car.getYearOfFabrication());
+                for (String tableName : FEATURE_TABLES) {
+                    appendCsv(row, LOOKUP_VALUES.get(tableName).apply(car));
+                }
+                appendCsv(row, car.getName());
+                appendCsv(row, car.getModel());
+                row.setCharAt(row.length() - 1, '\n');
+                byte[] bytes = row.toString().getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            }
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    static void appendCsv(StringBuilder row, Object value) {
+        if (value != null) {
+            row.append('"').append(value.toString().replace("\"", "\"\"")).append('"');
+        }
+        row.append(',');
+    }
+
+    void bindCarColumns(Connection conn, PreparedStatement stmt, List<CarDetails> cars) throws SQLException {
+        int size = cars.size();
+        String[] links = new String[size];
+        String[] names = new String[size];
+        String[] models = new String[size];
+        String[] regions = new String[size];
+        Integer[] mileages = new Integer[size];
+        Integer[] prices = new Integer[size];
+        Timestamp[] updateDates = new Timestamp[size];
+        String[] authors = new String[size];
+        Integer[] years = new Integer[size];
+        Integer[] adTypeIds = new Integer[size];
+        Integer[][] featureIds = new Integer[FEATURE_TABLES.size()][size];
+
+        for (int i = 0; i < size; i++) {
+            CarDetails car = cars.get(i);
+            links[i] = car.getLink().split("\\?")[0];
+            names[i] = car.getName();
+            models[i] = car.getModel();
+            regions[i] = car.getRegion();
+            mileages[i] = car.getMileage();
+            prices[i] = car.getEurPrice();
+            updateDates[i] = databaseManagerHelper.parseRomanianDate(car.getUpdateDate());
+            authors[i] = car.getAuthor();
+            years[i] = car.getYearOfFabrication();
+            adTypeIds[i] = getOrInsertLookup(conn, AD_TYPE_TABLE, car.getAdType());
+            for (int column = 0; column < FEATURE_TABLES.size(); column++) {
+                String tableName = FEATURE_TABLES.get(column);
+                featureIds[column][i] = getOrInsertLookup(conn, tableName, LOOKUP_VALUES.get(tableName).apply(car));
+            }
+        }
+
+        stmt.setArray(1, conn.createArrayOf("text", links));
+        stmt.setArray(2, conn.createArrayOf("text", regions));
+        stmt.setArray(3, conn.createArrayOf("int4", mileages));
+        stmt.setArray(4, conn.createArrayOf("int4", prices));
+        stmt.setArray(5, conn.createArrayOf("timestamp", updateDates));
+        stmt.setArray(6, conn.createArrayOf("int4", adTypeIds));
+        stmt.setArray(7, conn.createArrayOf("text", authors));
+        stmt.setArray(8, conn.createArrayOf("int4", years));
+        for (int column = 0; column < FEATURE_TABLES.size(); column++) {
+            stmt.setArray(9 + column, conn.createArrayOf("int4", featureIds[column]));
+        }
+        stmt.setArray(19, conn.createArrayOf("text", names));
+        stmt.setArray(20, conn.createArrayOf("text", models));
+    }
+
     void setNullableString(PreparedStatement stmt, int index, String value) throws SQLException {
         if (value == null) {
             stmt.setNull(index, java.sql.Types.VARCHAR);
@@ -119,26 +438,81 @@ public class DatabaseManager {
         }
     }
 
+    void resolveLookups(Connection conn, List<CarDetails> cars) throws SQLException {
+        for (Map.Entry<String, Function<CarDetails, Object>> lookup : LOOKUP_VALUES.entrySet()) {
+            String tableName = lookup.getKey();
+            Map<String, Integer> ids = lookupIds(tableName);
+            Set<String> missing = new LinkedHashSet<>();
+            for (CarDetails car : cars) {
+                Object value = lookup.getValue().apply(car);
+                if (value != null && !ids.containsKey(value.toString())) {
+                    missing.add(value.toString());
+                }
+            }
+            if (missing.isEmpty()) continue;
+
+            String upsertSql = """
+                WITH input("name") AS (SELECT DISTINCT unnest(?::text[])),
+                inserted AS (
+                    INSERT INTO %1$s ("name") SELECT "name" FROM input
+                    ON CONFLICT ("name") DO NOTHING
+                    RETURNING id, "name"
+                )
+                SELECT id, "name" FROM inserted
+                UNION ALL
+                SELECT t.id, t."name" FROM %1$s t JOIN input USING ("name")
+                """.formatted(tableName);
+            try (PreparedStatement stmt = conn.prepareStatement(upsertSql)) {
+                stmt.setArray(1, conn.createArrayOf("text", missing.toArray()));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        ids.put(rs.getString("name"), rs.getInt("id"));
+                        missing.remove(rs.getString("name"));
+                    }
+                }
+            }
+            for (String name : missing) {
+                getOrInsertLookup(conn, tableName, name);
+            }
+        }
+    }
+
     Integer getOrInsertLookup(Connection conn, String tableName, Object value) throws SQLException {
         if (value == null) return null;
 
         String stringValue = value.toString();
+        Map<String, Integer> ids = lookupIds(tableName);
+        Integer cached = ids.get(stringValue);
+        if (cached != null) return cached;
 
-        String selectSql = "SELECT id FROM " + tableName + " WHERE \"name\" = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+        String insertSql = "INSERT INTO " + tableName + " (\"name\") VALUES (?) ON CONFLICT (\"name\") DO NOTHING RETURNING id";
+        try (PreparedStatement stmt = conn.prepareStatement(insertSql)) {
             stmt.setString(1, stringValue);
             ResultSet rs = stmt.executeQuery();
-            if (rs.next()) return rs.getInt("id");
+            if (rs.next()) return cacheLookup(ids, stringValue, rs.getInt("id"));
         }
 
-        String insertSql = "INSERT INTO " + tableName + " (\"name\") VALUES (?) RETURNING id";
-        try (PreparedStatement stmt = conn.prepareStatement(insertSql)) {
+        String selectSql = "SELECT id FROM " + tableName + " WHERE \"name\" = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
             stmt.setString(1, stringValue);
             ResultSet rs = stmt.executeQuery();
-            if (rs.next()) return rs.getInt("id");
+            if (rs.next()) return cacheLookup(ids, stringValue, rs.getInt("id"));
         }
 
         return null;
     }
 
+    int lookupCacheSize() {
+        return lookupIds.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private Map<String, Integer> lookupIds(String tableName) {
+        return lookupIds.computeIfAbsent(tableName, table -> new ConcurrentHashMap<>());
+    }
+
+    private static Integer cacheLookup(Map<String, Integer> ids, String name, int id) {
+        ids.put(name, id);
+        return id;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package scraper.database;
+
+public class PoolMetrics {
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int awaitingConnection;
+
+    public PoolMetrics(int active, int idle, int total, int awaitingConnection) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.awaitingConnection = awaitingConnection;
+    }
+
+    public int getActive() { return active; }
+    public int getIdle() { return idle; }
+    public int getTotal() { return total; }
+    public int getAwaitingConnection() { return awaitingConnection; }
+
+    @Override
+    public String toString() {
+        return "pool[active=" + active + ", idle=" + idle + ", total=" + total + ", waiting=" + awaitingConnection + "]";
+    }
+}
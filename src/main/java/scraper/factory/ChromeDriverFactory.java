@@ -9,6 +9,11 @@ import java.net.MalformedURLException;
 import java.net.URL;
 
 public class ChromeDriverFactory implements WebDriverFactory{
+    private final SeleniumReadinessProbe readinessProbe;
+
+    public ChromeDriverFactory(SeleniumReadinessProbe readinessProbe) {
+        this.readinessProbe = readinessProbe;
+    }
 
     @Override
     public WebDriver createWebDriver() throws MalformedURLException {
@@ -21,7 +26,17 @@ public class ChromeDriverFactory implements WebDriverFactory{
         options.addArguments("--blink-settings=imagesEnabled=false");
 
         URL seleniumServerUrl = new URL(System.getenv("SELENIUM_CHROME_URL"));
+        awaitReady(seleniumServerUrl);
 
         return new RemoteWebDriver(seleniumServerUrl, options);
     }
+
+    private void awaitReady(URL seleniumServerUrl) {
+        try {
+            readinessProbe.awaitReady(seleniumServerUrl);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Waiting for Selenium interrupted", e);
+        }
+    }
 }
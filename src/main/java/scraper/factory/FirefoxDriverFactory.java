@@ -9,6 +9,12 @@ import java.net.MalformedURLException;
 import java.net.URL;
 
 public class FirefoxDriverFactory implements WebDriverFactory{
+    private final SeleniumReadinessProbe readinessProbe;
+
+    public FirefoxDriverFactory(SeleniumReadinessProbe readinessProbe) {
+        this.readinessProbe = readinessProbe;
+    }
+
     @Override
     public WebDriver createWebDriver() throws MalformedURLException {
         FirefoxOptions options = new FirefoxOptions();
@@ -18,7 +24,17 @@ public class FirefoxDriverFactory implements WebDriverFactory{
         options.addArguments("--blink-settings=imagesEnabled=false");
 
         URL seleniumServerUrl = new URL(System.getenv("SELENIUM_FIREFOX_URL"));
+        awaitReady(seleniumServerUrl);
 
         return new RemoteWebDriver(seleniumServerUrl, options);
     }
+
+    private void awaitReady(URL seleniumServerUrl) {
+        try {
+            readinessProbe.awaitReady(seleniumServerUrl);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Waiting for Selenium interrupted", e);
+        }
+    }
 }
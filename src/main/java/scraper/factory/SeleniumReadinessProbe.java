@@ -0,0 +1,79 @@
+package scraper.factory;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import scraper.http.Backoff;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class SeleniumReadinessProbe {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(2);
+
+    private final HttpClient client;
+    private final Duration deadline;
+    private final Backoff backoff;
+    private final Json json = new Json();
+
+    public SeleniumReadinessProbe(Duration deadline) {
+        this(HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build(), deadline,
+                new Backoff(Duration.ofMillis(250), Duration.ofSeconds(5)));
+    }
+
+    SeleniumReadinessProbe(HttpClient client, Duration deadline, Backoff backoff) {
+        this.client = client;
+        this.deadline = deadline;
+        this.backoff = backoff;
+    }
+
+    public void awaitReady(URL seleniumServerUrl) throws InterruptedException {
+        URI statusUri = statusUri(seleniumServerUrl);
+        long deadlineAt = System.nanoTime() + deadline.toNanos();
+        for (int attempt = 1; ; attempt++) {
+            if (isReady(statusUri)) {
+                return;
+            }
+            long remaining = deadlineAt - System.nanoTime();
+            if (remaining <= 0) {
+                throw new IllegalStateException("Selenium at " + statusUri + " not ready after " + deadline);
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.min(remaining, backoff.delay(attempt).toNanos()));
+        }
+    }
+
+    boolean isReady(URI statusUri) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(statusUri).timeout(REQUEST_TIMEOUT).GET().build();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            return response.statusCode() == 200 && isReadyStatus(response.body());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    boolean isReadyStatus(String body) {
+        try {
+            Map<String, Object> status = json.toType(body, Json.MAP_TYPE);
+            return status.get("value") instanceof Map<?, ?> value && Boolean.TRUE.equals(value.get("ready"));
+        } catch (JsonException e) {
+            return false;
+        }
+    }
+
+    static URI statusUri(URL seleniumServerUrl) {
+        try {
+            URI uri = seleniumServerUrl.toURI();
+            return new URI(uri.getScheme(), null, uri.getHost(), uri.getPort(), "/status", null, null);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid Selenium URL: " + seleniumServerUrl, e);
+        }
+    }
+}
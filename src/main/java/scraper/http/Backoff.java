@@ -0,0 +1,28 @@
+package scraper.http;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class Backoff {
+    private final Duration base;
+    private final Duration max;
+
+    public Backoff(Duration base, Duration max) {
+        this.base = base;
+        this.max = max;
+    }
+
+    public Duration delay(int attempt) {
+        long ceiling = ceiling(attempt).toMillis();
+        if (ceiling <= 1) {
+            return Duration.ofMillis(ceiling);
+        }
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+    }
+
+    Duration ceiling(int attempt) {
+        int shift = Math.min(Math.max(attempt - 1, 0), 30);
+        long millis = base.toMillis() << shift;
+        return millis < 0 || millis > max.toMillis() ? max : Duration.ofMillis(millis);
+    }
+}
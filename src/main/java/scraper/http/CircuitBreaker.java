@@ -0,0 +1,121 @@
+package scraper.http;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final LongSupplier clock;
+    private final boolean[] outcomes;
+    private int recorded;
+    private int next;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openUntil;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(int windowSize, double failureRateThreshold, Duration openDuration) {
+        this(windowSize, failureRateThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(int windowSize, double failureRateThreshold, Duration openDuration, LongSupplier clock) {
+        this.windowSize = windowSize;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.clock = clock;
+        this.outcomes = new boolean[windowSize];
+    }
+
+    public synchronized void awaitPermission() throws InterruptedException {
+        while (true) {
+            long waitNanos = remainingOpenNanos();
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.timedWait(this, waitNanos);
+            } else if (state == State.HALF_OPEN && probeInFlight) {
+                wait();
+            } else {
+                probeInFlight = state == State.HALF_OPEN;
+                return;
+            }
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        releaseProbe();
+        if (state == State.HALF_OPEN) {
+            reset();
+            state = State.CLOSED;
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void recordFailure() {
+        releaseProbe();
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (recorded >= windowSize && failures >= failureRateThreshold * recorded) {
+            open();
+        }
+    }
+
+    public synchronized void recordIgnored() {
+        releaseProbe();
+    }
+
+    public synchronized State getState() {
+        remainingOpenNanos();
+        return state;
+    }
+
+    synchronized long remainingOpenNanos() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        long remaining = openUntil - clock.getAsLong();
+        if (remaining <= 0) {
+            state = State.HALF_OPEN;
+            return 0;
+        }
+        return remaining;
+    }
+
+    private void releaseProbe() {
+        if (probeInFlight) {
+            probeInFlight = false;
+            notifyAll();
+        }
+    }
+
+    private void record(boolean failure) {
+        if (recorded == windowSize && outcomes[next]) {
+            failures--;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % windowSize;
+        recorded = Math.min(recorded + 1, windowSize);
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntil = clock.getAsLong() + openNanos;
+        reset();
+    }
+
+    private void reset() {
+        recorded = 0;
+        next = 0;
+        failures = 0;
+    }
+}
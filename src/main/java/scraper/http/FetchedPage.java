@@ -0,0 +1,39 @@
+package scraper.http;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+public class FetchedPage {
+    private final String url;
+    private final byte[] body;
+    private final String charset;
+    private final Document document;
+
+    public FetchedPage(String url, byte[] body, String charset) {
+        this.url = url;
+        this.body = body;
+        this.charset = charset;
+        this.document = null;
+    }
+
+    public FetchedPage(String url, Document document) {
+        this.url = url;
+        this.body = null;
+        this.charset = null;
+        this.document = document;
+    }
+
+    public Document parse() throws IOException {
+        if (document != null) {
+            return document;
+        }
+        return Jsoup.parse(new ByteArrayInputStream(body), charset, url);
+    }
+
+    public String getUrl() { return url; }
+    public byte[] getBody() { return body; }
+    public String getCharset() { return charset; }
+}
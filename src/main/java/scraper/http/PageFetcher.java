@@ -0,0 +1,157 @@
+package scraper.http;
+
+import org.jsoup.HttpStatusException;
+import scraper.config.ScraperConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+public class PageFetcher {
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/114.0.0.0 Safari/537.36";
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(5);
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final RateLimiter rateLimiter;
+    private final Supplier<CircuitBreaker> breakerFactory;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public PageFetcher(ScraperConfig config) {
+        this(config, new TokenBucketRateLimiter(config.getRequestsPerSecond(), config.getRateLimitBurst(),
+                config.getRateLimitJitter()));
+    }
+
+    public PageFetcher(ScraperConfig config, RateLimiter rateLimiter) {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(config.getHttpConnectTimeout())
+                .build(), config.getHttpRequestTimeout(), rateLimiter,
+                () -> new CircuitBreaker(config.getCircuitWindowSize(), config.getCircuitFailureRate(),
+                        config.getCircuitOpenDuration()));
+    }
+
+    PageFetcher(HttpClient client, Duration requestTimeout, RateLimiter rateLimiter,
+                Supplier<CircuitBreaker> breakerFactory) {
+        this.client = client;
+        this.requestTimeout = requestTimeout;
+        this.rateLimiter = rateLimiter;
+        this.breakerFactory = breakerFactory;
+    }
+
+    public static boolean isRetryable(IOException e) {
+        if (e instanceof HttpStatusException statusException) {
+            int status = statusException.getStatusCode();
+            return status == 429 || status >= 500;
+        }
+        return true;
+    }
+
+    public FetchedPage fetchPage(String url) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = send(url);
+        try (InputStream body = decode(response)) {
+            return new FetchedPage(url, body.readAllBytes(), charset(response));
+        }
+    }
+
+    public FetchedPage fetchPage(String url, StreamingDocumentReader reader) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = send(url);
+        try (InputStream body = decode(response)) {
+            return new FetchedPage(url, reader.read(body, charset(response), url));
+        }
+    }
+
+    HttpResponse<InputStream> send(String url) throws IOException, InterruptedException {
+        URI uri = URI.create(url);
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "text/html,application/xhtml+xml")
+                .header("Accept-Encoding", ACCEPT_ENCODING)
+                .GET()
+                .build();
+
+        CircuitBreaker breaker = breakers.computeIfAbsent(uri.getHost(), host -> breakerFactory.get());
+        breaker.awaitPermission();
+        HttpResponse<InputStream> response;
+        try {
+            rateLimiter.acquire(uri.getHost());
+            response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException e) {
+            breaker.recordFailure();
+            throw e;
+        } catch (InterruptedException | RuntimeException e) {
+            breaker.recordIgnored();
+            throw e;
+        }
+        int status = response.statusCode();
+        if (status >= 500) {
+            breaker.recordFailure();
+        } else if (status == 429) {
+            breaker.recordIgnored();
+        } else {
+            breaker.recordSuccess();
+        }
+        if (status == 429 || status == 503) {
+            rateLimiter.pause(uri.getHost(), retryAfter(response));
+        }
+        if (status >= 400) {
+            response.body().close();
+            throw new HttpStatusException("HTTP error fetching URL", status, url);
+        }
+        return response;
+    }
+
+    Duration retryAfter(HttpResponse<?> response) {
+        String value = response.headers().firstValue("Retry-After").orElse(null);
+        if (value == null || value.isBlank()) {
+            return DEFAULT_RETRY_AFTER;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime until = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration delay = Duration.between(ZonedDateTime.now(until.getZone()), until);
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (DateTimeParseException ignored) {
+                return DEFAULT_RETRY_AFTER;
+            }
+        }
+    }
+
+    InputStream decode(HttpResponse<InputStream> response) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("").toLowerCase(Locale.ROOT);
+        return switch (encoding) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(response.body());
+            case "deflate" -> new InflaterInputStream(response.body());
+            default -> response.body();
+        };
+    }
+
+    String charset(HttpResponse<?> response) {
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        for (String part : contentType.split(";")) {
+            String trimmed = part.trim();
+            if (trimmed.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+                return trimmed.substring("charset=".length()).replace("\"", "");
+            }
+        }
+        return null;
+    }
+}
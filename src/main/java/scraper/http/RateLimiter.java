@@ -0,0 +1,9 @@
+package scraper.http;
+
+import java.time.Duration;
+
+public interface RateLimiter {
+    void acquire(String host) throws InterruptedException;
+
+    void pause(String host, Duration duration);
+}
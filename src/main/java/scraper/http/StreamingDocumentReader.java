@@ -0,0 +1,81 @@
+package scraper.http;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.jsoup.select.Evaluator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+public class StreamingDocumentReader {
+    private final List<Evaluator> blocks;
+
+    public StreamingDocumentReader(List<Evaluator> blocks) {
+        this.blocks = List.copyOf(blocks);
+    }
+
+    public Document read(InputStream body, String charset, String url) throws IOException {
+        List<Evaluator> pending = new ArrayList<>(blocks);
+        Set<Element> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        try (StreamParser parser = new StreamParser(Parser.htmlParser())) {
+            parser.parse(new InputStreamReader(body, charset(charset)), url);
+            Iterator<Element> elements = parser.iterator();
+            while (!pending.isEmpty() && elements.hasNext()) {
+                Element element = elements.next();
+                if (element.parent() == null) {
+                    continue;
+                }
+                if (pending.removeIf(element::is)) {
+                    keepWithAncestors(element, kept);
+                } else if (!kept.contains(element) && !insideBlock(element)) {
+                    element.remove();
+                }
+            }
+            return parser.document();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private boolean insideBlock(Element element) {
+        Element parent = element.parent();
+        for (Evaluator block : blocks) {
+            if (parent.closest(block) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void keepWithAncestors(Element element, Set<Element> kept) {
+        Element current = element;
+        while (current != null && kept.add(current)) {
+            current = current.parent();
+        }
+    }
+
+    static Charset charset(String name) {
+        if (name == null) {
+            return StandardCharsets.UTF_8;
+        }
+        try {
+            return Charset.forName(name);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package scraper.http;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+public class TokenBucketRateLimiter implements RateLimiter {
+    private final double permitsPerSecond;
+    private final int burst;
+    private final long maxJitterNanos;
+    private final LongSupplier clock;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst, Duration maxJitter) {
+        this(permitsPerSecond, burst, maxJitter, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(double permitsPerSecond, int burst, Duration maxJitter, LongSupplier clock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.maxJitterNanos = maxJitter.toNanos();
+        this.clock = clock;
+    }
+
+    @Override
+    public void acquire(String host) throws InterruptedException {
+        Bucket bucket = bucket(host);
+        long waitNanos;
+        while ((waitNanos = bucket.reserve()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        if (maxJitterNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(maxJitterNanos));
+        }
+    }
+
+    @Override
+    public void pause(String host, Duration duration) {
+        bucket(host).pauseFor(duration.toNanos());
+    }
+
+    long reserve(String host) {
+        return bucket(host).reserve();
+    }
+
+    private Bucket bucket(String host) {
+        return buckets.computeIfAbsent(host, h -> new Bucket());
+    }
+
+    private class Bucket {
+        private double tokens = burst;
+        private long lastRefill = clock.getAsLong();
+        private long pausedUntil = lastRefill;
+
+        synchronized long reserve() {
+            long now = clock.getAsLong();
+            if (now - pausedUntil < 0) {
+                lastRefill = pausedUntil;
+                return pausedUntil - now;
+            }
+            tokens = Math.min(burst, tokens + (now - lastRefill) * permitsPerSecond / 1_000_000_000d);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * 1_000_000_000d / permitsPerSecond);
+        }
+
+        synchronized void pauseFor(long nanos) {
+            long until = clock.getAsLong() + nanos;
+            if (until - pausedUntil > 0) {
+                pausedUntil = until;
+                tokens = 0;
+            }
+        }
+    }
+}
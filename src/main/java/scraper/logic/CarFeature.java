@@ -0,0 +1,51 @@
+package scraper.logic;
+
+import scraper.model.CarDetails;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+public enum CarFeature {
+    GENERATION("Generație", (builder, value) -> { }),
+    YEAR_OF_FABRICATION("An de fabricație", (builder, value) -> builder.yearOfFabrication(DigitParser.parseDigits(value))),
+    WHEEL_SIDE("Volan", CarDetails.Builder::wheelSide),
+    BODY("Tip caroserie", CarDetails.Builder::body),
+    COLOR("Culoare", CarDetails.Builder::color),
+    NR_OF_SEATS("Număr de locuri", (builder, value) -> builder.nrOfSeats(DigitParser.parseDigits(value))),
+    NR_OF_DOORS("Număr uși", (builder, value) -> builder.nrOfDoors(DigitParser.parseDigits(value))),
+    ENGINE_CAPACITY("Capacitate cilindrică", (builder, value) -> builder.engineCapacity(DigitParser.parseDigits(value))),
+    HORSEPOWER("Putere", (builder, value) -> builder.horsepower(DigitParser.parseDigits(value))),
+    PETROL_TYPE("Tip combustibil", CarDetails.Builder::petrolType),
+    GEARS_TYPE("Cutie de viteze", CarDetails.Builder::gearsType),
+    TRACTION_TYPE("Tip tracțiune", CarDetails.Builder::tractionType),
+    MILEAGE("Rulaj", (builder, value) -> builder.mileage(DigitParser.parseDigits(value)));
+
+    private static final Map<String, CarFeature> BY_LABEL = new HashMap<>();
+
+    static {
+        for (CarFeature feature : values()) {
+            BY_LABEL.put(feature.label, feature);
+        }
+    }
+
+    private final String label;
+    private final BiConsumer<CarDetails.Builder, String> setter;
+
+    CarFeature(String label, BiConsumer<CarDetails.Builder, String> setter) {
+        this.label = label;
+        this.setter = setter;
+    }
+
+    public static CarFeature forLabel(String label) {
+        return BY_LABEL.get(label);
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void apply(CarDetails.Builder builder, String value) {
+        setter.accept(builder, value);
+    }
+}
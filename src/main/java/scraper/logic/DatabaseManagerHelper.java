@@ -1,36 +1,86 @@
 package scraper.logic;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.sql.Timestamp;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.text.ParsePosition;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DatabaseManagerHelper {
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseManagerHelper.class);
+    private static final Map<Long, String> ROMANIAN_MONTHS = Map.ofEntries(
+            Map.entry(1L, "ian."), Map.entry(2L, "feb."), Map.entry(3L, "mar."), Map.entry(4L, "apr."),
+            Map.entry(5L, "mai."), Map.entry(6L, "iun."), Map.entry(7L, "iul."), Map.entry(8L, "aug."),
+            Map.entry(9L, "sept."), Map.entry(10L, "oct."), Map.entry(11L, "nov."), Map.entry(12L, "dec."));
+    private static final DateTimeFormatter DATE_TIME = new DateTimeFormatterBuilder()
+            .parseCaseInsensitive()
+            .appendValue(ChronoField.DAY_OF_MONTH)
+            .appendLiteral(' ')
+            .appendText(ChronoField.MONTH_OF_YEAR, ROMANIAN_MONTHS)
+            .appendLiteral(' ')
+            .appendValue(ChronoField.YEAR, 4)
+            .appendLiteral(", ")
+            .append(timeFormatter())
+            .toFormatter(Locale.ROOT);
+    private static final DateTimeFormatter TIME = timeFormatter();
+    private static final String TODAY = "azi, ";
+    private static final String YESTERDAY = "ieri, ";
+
+    private final Clock clock;
+    private final AtomicLong failedParses = new AtomicLong();
+
+    public DatabaseManagerHelper() {
+        this(Clock.systemDefaultZone());
+    }
+
+    DatabaseManagerHelper(Clock clock) {
+        this.clock = clock;
+    }
+
+    private static DateTimeFormatter timeFormatter() {
+        return new DateTimeFormatterBuilder()
+                .appendValue(ChronoField.HOUR_OF_DAY)
+                .appendLiteral(':')
+                .appendValue(ChronoField.MINUTE_OF_HOUR, 2)
+                .toFormatter(Locale.ROOT);
+    }
+
     public Timestamp parseRomanianDate(String dateStr) {
         if (dateStr == null || dateStr.isBlank()) return null;
 
-        String replaced = dateStr
-                .replace("ian.", "Jan")
-                .replace("feb.", "Feb")
-                .replace("mar.", "Mar")
-                .replace("apr.", "Apr")
-                .replace("mai.", "May")
-                .replace("iun.", "Jun")
-                .replace("iul.", "Jul")
-                .replace("aug.", "Aug")
-                .replace("sept.", "Sep")
-                .replace("oct.", "Oct")
-                .replace("nov.", "Nov")
-                .replace("dec.", "Dec");
-
+        String text = dateStr.strip();
         try {
-            SimpleDateFormat sdf = new SimpleDateFormat("d MMM yyyy, HH:mm", Locale.ENGLISH);
-            Date parsed = sdf.parse(replaced);
-            return new Timestamp(parsed.getTime());
-        } catch (ParseException e) {
-            System.err.println("Failed to parse normalized date: " + replaced);
+            if (text.regionMatches(true, 0, TODAY, 0, TODAY.length())) {
+                return relative(text, TODAY.length(), LocalDate.now(clock));
+            }
+            if (text.regionMatches(true, 0, YESTERDAY, 0, YESTERDAY.length())) {
+                return relative(text, YESTERDAY.length(), LocalDate.now(clock).minusDays(1));
+            }
+            return Timestamp.valueOf(LocalDateTime.from(DATE_TIME.parse(text, new ParsePosition(0))));
+        } catch (DateTimeParseException e) {
+            failedParses.incrementAndGet();
+            logger.warn("Failed to parse date: {}", dateStr);
             return null;
         }
     }
+
+    public long getFailedParses() {
+        return failedParses.get();
+    }
+
+    private static Timestamp relative(String text, int timeOffset, LocalDate date) {
+        LocalTime time = LocalTime.from(TIME.parse(text, new ParsePosition(timeOffset)));
+        return Timestamp.valueOf(date.atTime(time));
+    }
 }
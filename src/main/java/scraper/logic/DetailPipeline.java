@@ -0,0 +1,267 @@
+package scraper.logic;
+
+import org.slf4j.Logger;
+import scraper.config.ScraperConfig;
+import scraper.http.Backoff;
+import scraper.http.FetchedPage;
+import scraper.http.PageFetcher;
+import scraper.model.CarDetails;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+public class DetailPipeline {
+    private static final String END_OF_LINKS = new String();
+    private static final FetchedPage END_OF_PAGES = new FetchedPage("", new byte[0], null);
+    private static final CarDetails END_OF_RESULTS = new CarDetails.Builder().build();
+
+    private final BlockingQueue<String> links;
+    private final BlockingQueue<FetchedPage> pages;
+    private final BlockingQueue<CarDetails> results;
+    private final ExecutorService fetchExecutor;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final int parseThreads;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int maxAttempts;
+    private final Backoff backoff;
+    private final PageSource fetcher;
+    private final Function<FetchedPage, CarDetails> parser;
+    private final BatchWriter writer;
+    private final Logger logger;
+    private final StageMetrics fetchMetrics;
+    private final StageMetrics parseMetrics;
+    private final StageMetrics persistMetrics;
+    private final List<Thread> parseWorkers = new ArrayList<>();
+    private final Queue<String> deadLetters = new ConcurrentLinkedQueue<>();
+    private Thread dispatcher;
+    private Thread persister;
+    private volatile SQLException writeFailure;
+
+    public DetailPipeline(ScraperConfig config, ExecutorService fetchExecutor, PageSource fetcher,
+                          Function<FetchedPage, CarDetails> parser, BatchWriter writer, Logger logger) {
+        this.links = new ArrayBlockingQueue<>(config.getLinkQueueCapacity());
+        this.pages = new ArrayBlockingQueue<>(config.getStageQueueCapacity());
+        this.results = new ArrayBlockingQueue<>(config.getStageQueueCapacity());
+        this.fetchExecutor = fetchExecutor;
+        this.inFlight = new Semaphore(config.getMaxInFlightRequests());
+        this.maxInFlight = config.getMaxInFlightRequests();
+        this.parseThreads = config.getParseThreads();
+        this.batchSize = config.isBulkLoadMode() ? config.getBulkLoadBatchSize() : config.getPersistBatchSize();
+        this.flushIntervalNanos = (config.isBulkLoadMode()
+                ? config.getBulkLoadFlushInterval() : config.getPersistFlushInterval()).toNanos();
+        this.maxAttempts = config.getFetchMaxAttempts();
+        this.backoff = new Backoff(config.getFetchBackoffBase(), config.getFetchBackoffMax());
+        this.fetcher = fetcher;
+        this.parser = parser;
+        this.writer = writer;
+        this.logger = logger;
+        this.fetchMetrics = new StageMetrics("fetch", links::size);
+        this.parseMetrics = new StageMetrics("parse", pages::size);
+        this.persistMetrics = new StageMetrics("persist", results::size);
+    }
+
+    public void start() {
+        dispatcher = Thread.ofPlatform().daemon().name("detail-fetch-dispatcher").start(this::dispatch);
+        for (int i = 0; i < parseThreads; i++) {
+            parseWorkers.add(Thread.ofPlatform().daemon().name("detail-parse-" + i).start(this::parse));
+        }
+        persister = Thread.ofPlatform().daemon().name("detail-persist").start(this::persist);
+    }
+
+    public void submit(String carLink) throws InterruptedException {
+        links.put(carLink);
+    }
+
+    public void finish() throws InterruptedException, SQLException {
+        links.put(END_OF_LINKS);
+        dispatcher.join();
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+
+        for (int i = 0; i < parseThreads; i++) {
+            pages.put(END_OF_PAGES);
+        }
+        for (Thread worker : parseWorkers) {
+            worker.join();
+        }
+
+        results.put(END_OF_RESULTS);
+        persister.join();
+
+        logger.info("Detail pipeline finished: {}", getMetrics());
+        if (writeFailure != null) {
+            throw writeFailure;
+        }
+    }
+
+    public List<String> getDeadLetters() {
+        return List.copyOf(deadLetters);
+    }
+
+    public List<StageMetrics> getMetrics() {
+        return List.of(fetchMetrics, parseMetrics, persistMetrics);
+    }
+
+    void dispatch() {
+        try {
+            String carLink;
+            while ((carLink = links.take()) != END_OF_LINKS) {
+                inFlight.acquire();
+                String link = carLink;
+                try {
+                    fetchExecutor.submit(() -> fetch(link));
+                } catch (RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void fetch(String carLink) {
+        try {
+            FetchedPage page = fetchWithRetries(carLink);
+            fetchMetrics.recordProcessed(1);
+            if (page != null) {
+                pages.put(page);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Error fetching car detail {}", carLink, e);
+            deadLetters.add(carLink);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    FetchedPage fetchWithRetries(String carLink) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return fetcher.fetch(carLink);
+            } catch (IOException e) {
+                if (!PageFetcher.isRetryable(e)) {
+                    logger.warn("Skipping car detail {} - {}", carLink, e.getMessage());
+                    return null;
+                }
+                if (attempt >= maxAttempts) {
+                    logger.error("Giving up on car detail {} after {} attempts - {}", carLink, attempt, e.getMessage());
+                    deadLetters.add(carLink);
+                    return null;
+                }
+                Duration delay = backoff.delay(attempt);
+                logger.warn("Retrying car detail {} in {} ms ({}/{}) - {}", carLink, delay.toMillis(), attempt,
+                        maxAttempts, e.getMessage());
+                TimeUnit.MILLISECONDS.sleep(delay.toMillis());
+            }
+        }
+    }
+
+    void parse() {
+        try {
+            FetchedPage page;
+            while ((page = pages.take()) != END_OF_PAGES) {
+                try {
+                    CarDetails details = parser.apply(page);
+                    parseMetrics.recordProcessed(1);
+                    if (details != null) {
+                        results.put(details);
+                    }
+                } catch (RuntimeException e) {
+                    logger.error("Error parsing car detail {}", page.getUrl(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void persist() {
+        List<CarDetails> batch = new ArrayList<>(batchSize);
+        long flushDeadline = 0;
+        try {
+            while (true) {
+                CarDetails details = batch.isEmpty()
+                        ? results.take()
+                        : results.poll(flushDeadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (details == null) {
+                    flush(batch);
+                    continue;
+                }
+                if (details == END_OF_RESULTS) {
+                    break;
+                }
+                if (batch.isEmpty()) {
+                    flushDeadline = System.nanoTime() + flushIntervalNanos;
+                }
+                batch.add(details);
+                if (batch.size() >= batchSize) {
+                    flush(batch);
+                }
+            }
+            flush(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush(List<CarDetails> batch) throws InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<CarDetails> rows = List.copyOf(batch);
+        batch.clear();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                writer.write(rows);
+                persistMetrics.recordProcessed(rows.size());
+                return;
+            } catch (SQLException e) {
+                if (attempt >= maxAttempts) {
+                    logger.error("Error saving batch of {} cars", rows.size(), e);
+                    recordWriteFailure(e);
+                    return;
+                }
+                Duration delay = backoff.delay(attempt);
+                logger.warn("Retrying batch of {} cars in {} ms ({}/{}) - {}", rows.size(), delay.toMillis(), attempt,
+                        maxAttempts, e.getMessage());
+                TimeUnit.MILLISECONDS.sleep(delay.toMillis());
+            } catch (RuntimeException e) {
+                logger.error("Error saving batch of {} cars", rows.size(), e);
+                recordWriteFailure(new SQLException("Error saving batch of " + rows.size() + " cars", e));
+                return;
+            }
+        }
+    }
+
+    private void recordWriteFailure(SQLException e) {
+        if (writeFailure == null) {
+            writeFailure = e;
+        } else {
+            writeFailure.setNextException(e);
+        }
+    }
+
+    public interface PageSource {
+        FetchedPage fetch(String carLink) throws IOException, InterruptedException;
+    }
+
+    public interface BatchWriter {
+        void write(List<CarDetails> batch) throws SQLException;
+    }
+}
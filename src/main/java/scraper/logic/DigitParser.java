@@ -0,0 +1,27 @@
+package scraper.logic;
+
+public final class DigitParser {
+    private DigitParser() {
+    }
+
+    public static int parseDigits(CharSequence text) {
+        int result = 0;
+        boolean found = false;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                continue;
+            }
+            found = true;
+            int digit = c - '0';
+            if (result > (Integer.MAX_VALUE - digit) / 10) {
+                throw new NumberFormatException("Number too large: \"" + text + "\"");
+            }
+            result = result * 10 + digit;
+        }
+        if (!found) {
+            throw new NumberFormatException("No digits in: \"" + text + "\"");
+        }
+        return result;
+    }
+}
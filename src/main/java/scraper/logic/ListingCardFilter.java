@@ -0,0 +1,57 @@
+package scraper.logic;
+
+import scraper.config.ScraperConfig;
+import scraper.model.ListingCard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+public class ListingCardFilter implements Predicate<ListingCard> {
+    private final List<Predicate<ListingCard>> rules;
+
+    public ListingCardFilter(List<Predicate<ListingCard>> rules) {
+        this.rules = List.copyOf(rules);
+    }
+
+    public static ListingCardFilter forSearch(ScraperConfig config, String requiredTitle) {
+        List<Predicate<ListingCard>> rules = new ArrayList<>();
+        if (config.isCardPrefilter()) {
+            rules.add(titleContains(requiredTitle));
+            rules.add(maxEurPrice(config.getMaxEurPrice()));
+        }
+        return new ListingCardFilter(rules);
+    }
+
+    static Predicate<ListingCard> titleContains(String requiredTitle) {
+        return card -> card.getTitle() == null || card.getTitle().isBlank() || card.getTitle().contains(requiredTitle);
+    }
+
+    static Predicate<ListingCard> maxEurPrice(int maxEurPrice) {
+        return card -> {
+            Integer price = eurPrice(card.getPriceText());
+            return price == null || price <= maxEurPrice;
+        };
+    }
+
+    static Integer eurPrice(String priceText) {
+        if (priceText == null || !priceText.contains("€")) {
+            return null;
+        }
+        try {
+            return DigitParser.parseDigits(priceText);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean test(ListingCard card) {
+        for (Predicate<ListingCard> rule : rules) {
+            if (!rule.test(card)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
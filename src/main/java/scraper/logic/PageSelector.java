@@ -0,0 +1,37 @@
+package scraper.logic;
+
+public enum PageSelector {
+    TRANSPORT_CATEGORY("search.transport"),
+    CARS_SUBCATEGORY("search.cars"),
+    BRAND_SEARCH("search.brand"),
+    MODEL_OPTION("search.modelOption"),
+    GENERATION_OPTIONS("search.generationOptions"),
+    NEXT_PAGE("listing.nextPage"),
+    AD_CARD("listing.card"),
+    CARD_LINK("listing.link"),
+    CARD_PRICE("listing.price"),
+    CARD_DATE("listing.date"),
+    TITLE("detail.title"),
+    ASIDE("detail.aside"),
+    UPDATE_DATE("detail.date"),
+    AD_TYPE("detail.type"),
+    PRICE("detail.price"),
+    REGION("detail.region"),
+    AUTHOR("detail.author"),
+    GENERALITIES_BLOCK("detail.generalitiesBlock"),
+    PARTICULARITIES_BLOCK("detail.particularitiesBlock"),
+    GENERALITIES("detail.generalities"),
+    PARTICULARITIES("detail.particularities"),
+    GROUP_KEY("detail.groupKey"),
+    GROUP_VALUE("detail.groupValue");
+
+    private final String key;
+
+    PageSelector(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
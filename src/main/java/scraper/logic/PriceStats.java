@@ -0,0 +1,71 @@
+package scraper.logic;
+
+import scraper.model.CarDetails;
+
+import java.util.List;
+
+public class PriceStats {
+    private static final String SELL_AD = "Vând";
+
+    private final int minMileage;
+    private final int maxMileage;
+    private long count;
+    private CarDetails minEntry;
+    private CarDetails maxEntry;
+    private long avgPriceSum;
+    private long avgPriceCount;
+
+    public PriceStats(int minMileage, int maxMileage) {
+        this.minMileage = minMileage;
+        this.maxMileage = maxMileage;
+    }
+
+    public synchronized void recordAll(List<CarDetails> cars) {
+        for (CarDetails car : cars) {
+            record(car);
+        }
+    }
+
+    public synchronized void record(CarDetails car) {
+        count++;
+        if (car.getEurPrice() == null || !SELL_AD.equals(car.getAdType())) {
+            return;
+        }
+        int price = car.getEurPrice();
+        if (minEntry == null || price < minEntry.getEurPrice()) {
+            minEntry = car;
+        }
+        if (maxEntry == null || price > maxEntry.getEurPrice()) {
+            maxEntry = car;
+        }
+        if (car.getMileage() != null && car.getMileage() > minMileage && car.getMileage() < maxMileage) {
+            avgPriceSum += price;
+            avgPriceCount++;
+        }
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized CarDetails getMinEntry() {
+        if (minEntry == null) {
+            throw new RuntimeException("There is no min price");
+        }
+        return minEntry;
+    }
+
+    public synchronized CarDetails getMaxEntry() {
+        if (maxEntry == null) {
+            throw new RuntimeException("There is no max price");
+        }
+        return maxEntry;
+    }
+
+    public synchronized double getAvgPrice() {
+        if (avgPriceCount == 0) {
+            throw new RuntimeException("Cannot compute average - list is empty");
+        }
+        return (double) avgPriceSum / avgPriceCount;
+    }
+}
@@ -5,21 +5,26 @@ import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.openqa.selenium.*;
-import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.support.pagefactory.ByChained;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
+import scraper.config.ScraperConfig;
 import scraper.database.DatabaseManager;
+import scraper.http.FetchedPage;
+import scraper.http.PageFetcher;
+import scraper.http.StreamingDocumentReader;
 import scraper.model.CarDetails;
+import scraper.model.ListingCard;
 
 import java.io.IOException;
 import java.sql.SQLException;
-import java.time.Duration;
+import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 
 public class Scraper {
     private final String baseUrl;
@@ -31,11 +36,61 @@ public class Scraper {
     private JavascriptExecutor js;
     private final DatabaseManager dbManager;
     private final Logger logger;
+    private final PageFetcher pageFetcher;
+    private final ScraperConfig config;
+    private final ExecutorService fetchExecutor;
+    private final ListingCardFilter cardFilter;
+    private final SelectorRegistry selectors;
+    private final String adLinkQuery;
+    private final StreamingDocumentReader detailReader;
+    private final DatabaseManagerHelper databaseManagerHelper;
+    private int knownAdStreak;
+    private volatile long lastPriceStatsRefresh = System.nanoTime();
     private static final String SCRIPT = "arguments[0].click();";
-    private Random random = new Random();
+    private static final List<PageSelector> FEATURE_SECTIONS = List.of(PageSelector.GENERALITIES, PageSelector.PARTICULARITIES);
+    private static final String MODEL_OPTION_SCRIPT = """
+            var options = document.querySelectorAll(arguments[0]);
+            for (var i = 0; i < options.length; i++) {
+                var labels = options[i].getElementsByTagName('label');
+                for (var j = 0; j < labels.length; j++) {
+                    if (labels[j].textContent.trim() === arguments[1]) return options[i];
+                }
+            }
+            return null;
+            """;
+    private static final String LISTING_SCRIPT = """
+            var cards = document.querySelectorAll(arguments[0]);
+            var result = [];
+            for (var i = 0; i < cards.length; i++) {
+                var link = cards[i].querySelector(arguments[1]);
+                if (!link) continue;
+                var price = cards[i].querySelector(arguments[2]);
+                var date = cards[i].querySelector(arguments[3]);
+                result.push({
+                    href: link.getAttribute('href'),
+                    title: (link.getAttribute('title') || link.textContent || '').trim(),
+                    price: price ? price.textContent.trim() : null,
+                    date: date ? date.textContent.trim() : null
+                });
+            }
+            return result;
+            """;
 
     public Scraper(WebDriver driver, String baseUrl, String carBrand, String carModel, String carGeneration,
                    DatabaseManager databaseManager, Logger logger) {
+        this(driver, baseUrl, carBrand, carModel, carGeneration, databaseManager, logger,
+                new PageFetcher(ScraperConfig.defaults()), ScraperConfig.defaults());
+    }
+
+    public Scraper(WebDriver driver, String baseUrl, String carBrand, String carModel, String carGeneration,
+                   DatabaseManager databaseManager, Logger logger, PageFetcher pageFetcher, ScraperConfig config) {
+        this(driver, baseUrl, carBrand, carModel, carGeneration, databaseManager, logger, pageFetcher, config,
+                new DatabaseManagerHelper());
+    }
+
+    public Scraper(WebDriver driver, String baseUrl, String carBrand, String carModel, String carGeneration,
+                   DatabaseManager databaseManager, Logger logger, PageFetcher pageFetcher, ScraperConfig config,
+                   DatabaseManagerHelper databaseManagerHelper) {
         this.baseUrl = baseUrl;
         this.carBrand = carBrand;
         this.carModel = carModel;
@@ -43,259 +98,404 @@ public class Scraper {
         this.dbManager = databaseManager;
         this.logger = logger;
         this.driver = driver;
+        this.pageFetcher = pageFetcher;
+        this.config = config;
+        this.databaseManagerHelper = databaseManagerHelper;
+        this.fetchExecutor = config.isVirtualThreads()
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(config.getMaxInFlightRequests());
+        this.cardFilter = ListingCardFilter.forSearch(config, carBrand + " " + carModel);
+        this.selectors = SelectorRegistry.load(config.getSelectorsFile());
+        this.adLinkQuery = selectors.query(PageSelector.AD_CARD) + " " + selectors.query(PageSelector.CARD_LINK);
+        this.detailReader = config.isStreamingParse()
+                ? new StreamingDocumentReader(List.of(selectors.get(PageSelector.TITLE), selectors.get(PageSelector.ASIDE),
+                        selectors.get(PageSelector.GENERALITIES_BLOCK), selectors.get(PageSelector.PARTICULARITIES_BLOCK)))
+                : null;
     }
 
     public void scrape() throws SQLException {
-        wait = new WebDriverWait(driver, Duration.ofSeconds(4));
+        wait = new WebDriverWait(driver, config.getWaitTimeout(), config.getWaitPollInterval());
         js = (JavascriptExecutor) driver;
-        List<CarDetails> finalProducts = new ArrayList<>();
+        PriceStats stats = new PriceStats(200000, 400000);
+        DetailPipeline pipeline = newPipeline(stats);
         try {
             navigateToSearchPage();
             selectCarModelAndGeneration();
-            processAllPages(finalProducts);
-            saveResults(finalProducts);
+            pipeline.start();
+            try {
+                processAllPages(pipeline);
+            } catch (RuntimeException e) {
+                logger.error("Pagination failed, saving the ads collected so far", e);
+                finishRun(pipeline, stats);
+                throw e;
+            }
+            finishRun(pipeline, stats);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Scrape interrupted", e);
         } finally {
+            fetchExecutor.shutdownNow();
             driver.quit();
         }
     }
 
+    void finishRun(DetailPipeline pipeline, PriceStats stats) throws SQLException, InterruptedException {
+        SQLException writeFailure = null;
+        try {
+            pipeline.finish();
+        } catch (SQLException e) {
+            writeFailure = e;
+        }
+        retryDeadLetters(pipeline.getDeadLetters(), stats);
+        refreshPriceStats();
+        logRunMetrics();
+        reportResults(stats);
+        if (writeFailure != null) {
+            throw writeFailure;
+        }
+    }
+
+    void logRunMetrics() {
+        logger.info("Database {}", dbManager.getPoolMetrics());
+        logger.info("Unparseable update dates: {}", databaseManagerHelper.getFailedParses());
+    }
+
+    DetailPipeline newPipeline(PriceStats stats) {
+        return new DetailPipeline(config, fetchExecutor, this::fetchDetailPage, this::parseDetailPage,
+                batch -> saveBatch(batch, stats), logger);
+    }
+
+    void retryDeadLetters(List<String> deadLetters, PriceStats stats)
+            throws InterruptedException, SQLException {
+        if (deadLetters.isEmpty()) {
+            return;
+        }
+        logger.info("Retrying {} failed car links", deadLetters.size());
+        DetailPipeline retryPipeline = newPipeline(stats);
+        retryPipeline.start();
+        for (String carLink : deadLetters) {
+            retryPipeline.submit(carLink);
+        }
+        retryPipeline.finish();
+        if (!retryPipeline.getDeadLetters().isEmpty()) {
+            logger.warn("Giving up on {} car links: {}", retryPipeline.getDeadLetters().size(),
+                    retryPipeline.getDeadLetters());
+        }
+    }
+
     void navigateToSearchPage() {
         driver.get(baseUrl);
 
-        WebElement transportLink = driver.findElement(By.cssSelector("a[data-category=\"658\"]"));
+        WebElement transportLink = driver.findElement(By.cssSelector(selectors.query(PageSelector.TRANSPORT_CATEGORY)));
         js.executeScript(SCRIPT, transportLink);
 
         WebElement autoturismeLink = wait.until(ExpectedConditions.elementToBeClickable(
-                By.cssSelector("ul.styles_subcategory__column__wVUcl li a[data-subcategory='659']")
+                By.cssSelector(selectors.query(PageSelector.CARS_SUBCATEGORY))
         ));
         js.executeScript(SCRIPT, autoturismeLink);
 
         WebElement searchInput = wait.until(ExpectedConditions.visibilityOfElementLocated(
-                By.cssSelector("input[data-test-id='filter-search']")
+                By.cssSelector(selectors.query(PageSelector.BRAND_SEARCH))
         ));
         searchInput.sendKeys(carBrand);
     }
 
     void selectCarModelAndGeneration() {
-        WebElement modelDiv = wait.until(ExpectedConditions.visibilityOfElementLocated(
-                By.xpath("//div[contains(@class,'styles_checkbox__item__bOjAW')]//label[text()='" + carModel + "']/ancestor::div[contains(@class,'styles_checkbox__item__bOjAW')]")
-        ));
+        WebElement modelDiv = wait.until(modelOptionVisible());
 
-        WebElement generationLabel = modelDiv.findElement(
-                By.xpath(".//div[contains(@class,'styles_children__H8mz2')]//label[text()='" + carGeneration + "']")
-        );
+        WebElement generationLabel = modelDiv.findElement(new ByChained(
+                By.cssSelector(selectors.query(PageSelector.GENERATION_OPTIONS)),
+                By.xpath(".//label[text()='" + carGeneration + "']")
+        ));
 
         if (!generationLabel.isSelected()) {
             js.executeScript(SCRIPT, generationLabel);
         }
     }
 
-    void processAllPages(List<CarDetails> finalProducts) {
-        boolean hasNextPage = true;
-        while (hasNextPage) {
-            processCurrentPage(finalProducts);
-
-            try {
-                Thread.sleep(1000);
+    ExpectedCondition<WebElement> modelOptionVisible() {
+        return d -> {
+            Object option = js.executeScript(MODEL_OPTION_SCRIPT, selectors.query(PageSelector.MODEL_OPTION), carModel);
+            return option instanceof WebElement element && element.isDisplayed() ? element : null;
+        };
+    }
 
-                WebElement nextButton = driver
-                        .findElement(By.cssSelector("button.Pagination_pagination__container__buttons__wrapper__icon__next__A22Rc"));
-                if (nextButton.isEnabled() && nextButton.isDisplayed()) {
-                    js.executeScript(SCRIPT, nextButton);
-                    Thread.sleep(1000);
-                } else {
-                    hasNextPage = false;
-                }
-            } catch (NoSuchElementException | InterruptedException e) {
-                Thread.currentThread().interrupt();
-                hasNextPage = false;
+    void processAllPages(DetailPipeline pipeline) {
+        int cutoff = knownAdCutoff();
+        knownAdStreak = 0;
+        boolean hasNextPage = true;
+        while (hasNextPage && !Thread.currentThread().isInterrupted()) {
+            processCurrentPage(pipeline);
+            logger.info("Detail pipeline: {}", pipeline.getMetrics());
+            if (cutoff > 0 && knownAdStreak >= cutoff) {
+                logger.info("Stopping pagination after {} consecutive known ads", knownAdStreak);
+                return;
             }
+            hasNextPage = goToNextPage();
         }
     }
 
-    void processCurrentPage(List<CarDetails> finalProducts) {
-        int maxRetries = 3;
-        int attempts = 0;
+    int knownAdCutoff() {
+        if (!config.isIncrementalCrawl()) {
+            return 0;
+        }
+        if (isFullCrawlDay()) {
+            logger.info("Full crawl day, paginating through all listings");
+            return 0;
+        }
+        return config.getKnownAdCutoff();
+    }
 
-        while (attempts < maxRetries) {
-            try {
-                String pageSource = driver.getPageSource();
-                assert pageSource != null;
-                Document doc = Jsoup.parse(pageSource);
+    boolean isFullCrawlDay() {
+        return LocalDate.now().getDayOfWeek() == config.getFullCrawlDay();
+    }
 
-                Elements carElements = doc.select("div.styles_adlist__3YsgA.styles_flex__9wOfD div.AdPhoto_wrapper__gAOIH");
+    boolean goToNextPage() {
+        List<WebElement> nextButtons = driver.findElements(By.cssSelector(selectors.query(PageSelector.NEXT_PAGE)));
+        if (nextButtons.isEmpty()) {
+            return false;
+        }
+        WebElement nextButton = nextButtons.get(0);
+        if (!nextButton.isEnabled() || !nextButton.isDisplayed()) {
+            return false;
+        }
 
-                List<String> carLinks = new ArrayList<>();
-                selectCar(carElements, carLinks);
+        List<WebElement> adLinks = driver.findElements(By.cssSelector(adLinkQuery));
+        WebElement firstAd = adLinks.isEmpty() ? null : adLinks.get(0);
+        String firstHref = firstAd == null ? null : firstAd.getDomAttribute("href");
 
-                ExecutorService executor = Executors.newFixedThreadPool(20);
-                List<Future<CarDetails>> futures = new ArrayList<>();
+        js.executeScript(SCRIPT, nextButton);
+        try {
+            wait.until(listingReplaced(firstAd, firstHref));
+            return true;
+        } catch (TimeoutException e) {
+            logger.warn("Next listing page did not load in time, stopping pagination");
+            return false;
+        }
+    }
 
-                for (String carLink : carLinks) {
-                    futures.add(executor.submit(() -> extractDetailedCarInfo(carLink)));
+    ExpectedCondition<Boolean> listingReplaced(WebElement oldFirstAd, String oldHref) {
+        return d -> {
+            if (oldFirstAd != null) {
+                try {
+                    if (Objects.equals(oldHref, oldFirstAd.getDomAttribute("href"))) {
+                        return false;
+                    }
+                } catch (StaleElementReferenceException e) {
+                    // old listing was detached by the page change
                 }
-
-                processFutureCarDetail(finalProducts, futures);
-
-                executor.shutdown();
-                executor.awaitTermination(1, TimeUnit.MINUTES);
-
-                break;
-            } catch (Exception e) {
-                logger.error("Error processing page, retrying... ({}/{})", (attempts + 1), maxRetries);
-                attempts++;
             }
-        }
+            return !d.findElements(By.cssSelector(adLinkQuery)).isEmpty();
+        };
     }
 
-    void processFutureCarDetail(List<CarDetails> finalProducts, List<Future<CarDetails>> futures) {
-        for (Future<CarDetails> future : futures) {
-            try {
-                CarDetails details = future.get();
-                if (details != null) {
-                    finalProducts.add(details);
+    void processCurrentPage(DetailPipeline pipeline) {
+        try {
+            List<ListingCard> cards = collectListingCards().stream()
+                    .filter(card -> card.getHref() != null && !card.getHref().isBlank())
+                    .toList();
+            List<ListingCard> accepted = cards.stream().filter(cardFilter).toList();
+            if (accepted.size() < cards.size()) {
+                logger.info("Skipped {} ads based on listing card data", cards.size() - accepted.size());
+            }
+
+            Map<String, Timestamp> knownAds = findKnownAds(accepted);
+            List<String> unchanged = new ArrayList<>();
+            for (ListingCard card : accepted) {
+                if (isKnownAndUnchanged(card, knownAds)) {
+                    unchanged.add(storedLink(card));
+                    knownAdStreak++;
+                } else {
+                    knownAdStreak = 0;
+                    pipeline.submit(card.getHref());
                 }
-            } catch (Exception e) {
-                logger.error("Error processing car detail future", e);
             }
+            if (!unchanged.isEmpty()) {
+                logger.info("Skipped {} known ads with no change since the last crawl", unchanged.size());
+                assignMissingModel(unchanged);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
-    void selectCar(Elements carElements, List<String> carLinks) {
-        for (Element carElement : carElements) {
-            Element linkEl = carElement.selectFirst("a.AdPhoto_info__link__OwhY6");
-            if (linkEl != null) {
-                carLinks.add(linkEl.attr("href"));
-            }
+    Map<String, Timestamp> findKnownAds(List<ListingCard> cards) {
+        if (!config.isIncrementalCrawl() || cards.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return dbManager.findKnownAds(cards.stream().map(this::storedLink).toList());
+        } catch (SQLException e) {
+            logger.warn("Could not look up known ads, fetching all of them - {}", e.getMessage());
+            return Map.of();
         }
     }
 
-    void extractCarDetails(Element carElement, List<CarDetails> finalProducts) {
-        Element carLinkElement = carElement.selectFirst("a.AdPhoto_info__link__OwhY6");
-        if (carLinkElement == null) return;
-
-        String carLink = carLinkElement.attr("href");
+    void assignMissingModel(List<String> links) {
+        try {
+            dbManager.assignMissingModel(links, modelKey(null));
+        } catch (SQLException e) {
+            logger.warn("Could not set the model on {} known ads - {}", links.size(), e.getMessage());
+        }
+    }
 
-        CarDetails carDetails = extractDetailedCarInfo(carLink);
-        if (carDetails != null) {
-            finalProducts.add(carDetails);
+    boolean isKnownAndUnchanged(ListingCard card, Map<String, Timestamp> knownAds) {
+        Timestamp storedUpdateDate = knownAds.get(storedLink(card));
+        if (storedUpdateDate == null) {
+            return false;
         }
+        Timestamp cardUpdateDate = databaseManagerHelper.parseRomanianDate(card.getDateText());
+        return cardUpdateDate != null && !cardUpdateDate.after(storedUpdateDate);
     }
 
-    CarDetails extractDetailedCarInfo(String carLink) {
-        try {
-            int delayMillis = 1000 + random.nextInt(2000);
-            Thread.sleep(delayMillis);
+    String storedLink(ListingCard card) {
+        return (baseUrl + card.getHref()).split("\\?")[0];
+    }
 
-            Document doc = Jsoup.connect(baseUrl + carLink)
-                    .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/114.0.0.0 Safari/537.36")
-                    .get();
+    List<ListingCard> collectListingCards() {
+        int maxRetries = 3;
+        int attempts = 0;
 
-            String title = getTitle(doc);
-            if (!title.contains(carBrand + " " + carModel)) {
-                return null;
+        while (attempts < maxRetries) {
+            try {
+                List<ListingCard> cards = readCardsFromBrowser();
+                return cards != null ? cards : readCardsFromPageSource();
+            } catch (Exception e) {
+                logger.error("Error reading page, retrying... ({}/{})", (attempts + 1), maxRetries);
+                attempts++;
             }
+        }
+        return List.of();
+    }
 
-            Elements items = doc.select("div.styles_aside__0m8KW");
-
-            String updateDate = getAdInfo(items, "p.styles_date__voWnk");
-
-            String adType = getAdInfo(items, "p.styles_type___J9Dy");
+    List<ListingCard> readCardsFromBrowser() {
+        Object result;
+        try {
+            result = js.executeScript(LISTING_SCRIPT, selectors.query(PageSelector.AD_CARD),
+                    selectors.query(PageSelector.CARD_LINK), selectors.query(PageSelector.CARD_PRICE),
+                    selectors.query(PageSelector.CARD_DATE));
+        } catch (WebDriverException e) {
+            logger.warn("Listing script failed, falling back to page source - {}", e.getMessage());
+            return null;
+        }
+        if (!(result instanceof List<?> rows)) {
+            return null;
+        }
 
-            String eurPriceText = getAdInfo(items, "span.styles_sidebar__main__DaXQC");
-            if (eurPriceText == null) {
-                logger.warn("eurPriceText is null for link: {}", baseUrl + carLink);
-                return null;
+        List<ListingCard> cards = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            if (row instanceof Map<?, ?> card && card.get("href") instanceof String href) {
+                cards.add(new ListingCard(href, (String) card.get("title"),
+                        (String) card.get("price"), (String) card.get("date")));
             }
-            Integer eurPrice = getEurPrice(eurPriceText);
-
-            String region = getString(items, "span.styles_address__text__duvKg");
+        }
+        return cards;
+    }
 
-            String author = getString(items, "a.styles_owner__login__VKE71");
+    List<ListingCard> readCardsFromPageSource() {
+        String pageSource = driver.getPageSource();
+        assert pageSource != null;
+        Document doc = Jsoup.parse(pageSource);
 
-            Map<String, String> generalities = new HashMap<>();
-            extractSection(doc, "div.styles_features__left__ON_QP > div.styles_group__aota8 > ul > li", generalities);
+        List<ListingCard> cards = new ArrayList<>();
+        selectCar(doc.select(selectors.get(PageSelector.AD_CARD)), cards);
+        return cards;
+    }
 
-            String generation = generalities.get("Generație");
+    void selectCar(Elements carElements, List<ListingCard> cards) {
+        for (Element carElement : carElements) {
+            Element linkEl = carElement.selectFirst(selectors.get(PageSelector.CARD_LINK));
+            if (linkEl != null) {
+                String title = linkEl.hasAttr("title") ? linkEl.attr("title") : linkEl.text();
+                cards.add(new ListingCard(linkEl.attr("href"), title,
+                        textOf(carElement.selectFirst(selectors.get(PageSelector.CARD_PRICE))),
+                        textOf(carElement.selectFirst(selectors.get(PageSelector.CARD_DATE)))));
+            }
+        }
+    }
 
-            Map<String, String> particularities = new HashMap<>();
-            extractSection(doc, "div.styles_features__right__Sn6fV > div.styles_group__aota8 > ul > li", particularities);
+    private static String textOf(Element element) {
+        return element != null ? element.text() : null;
+    }
 
-            Integer yearOfFabrication = getIntegerFromSection(particularities, "An de fabricație");
+    FetchedPage fetchDetailPage(String carLink) throws IOException, InterruptedException {
+        if (detailReader != null) {
+            return pageFetcher.fetchPage(baseUrl + carLink, detailReader);
+        }
+        return pageFetcher.fetchPage(baseUrl + carLink);
+    }
 
-            String wheelSide = particularities.get("Volan");
-            String body = particularities.get("Tip caroserie");
-            String color = particularities.get("Culoare");
+    CarDetails parseDetailPage(FetchedPage page) {
+        try {
+            return parseCarDetails(page.getUrl(), page.parse());
+        } catch (IOException e) {
+            logger.error("Error parsing car details page: {} - {}", page.getUrl(), e.getMessage());
+            return null;
+        }
+    }
 
-            Integer nrOfSeats = getIntegerFromSection(particularities, "Număr de locuri");
+    CarDetails parseCarDetails(String link, Document doc) {
+        String title = getTitle(doc);
+        if (!title.contains(carBrand + " " + carModel)) {
+            return null;
+        }
 
-            Integer nrOfDoors = getIntegerFromSection(particularities, "Număr uși");
+        Elements items = doc.select(selectors.get(PageSelector.ASIDE));
 
-            Integer engineCapacity = getIntegerFromSection(particularities, "Capacitate cilindrică");
+        String updateDate = getAdInfo(items, PageSelector.UPDATE_DATE);
 
-            Integer horsepower = getIntegerFromSection(particularities, "Putere");
+        String adType = getAdInfo(items, PageSelector.AD_TYPE);
 
-            String petrolType = particularities.get("Tip combustibil");
-            String gearsType = particularities.get("Cutie de viteze");
-            String tractionType = particularities.get("Tip tracțiune");
+        String eurPriceText = getAdInfo(items, PageSelector.PRICE);
+        if (eurPriceText == null) {
+            logger.warn("eurPriceText is null for link: {}", link);
+            return null;
+        }
+        Integer eurPrice = getEurPrice(eurPriceText);
+        if ((eurPrice == null) || (eurPrice > config.getMaxEurPrice())) {
+            return null;
+        }
 
-            Integer mileage = getIntegerFromSection(particularities, "Rulaj");
+        String region = getString(items, PageSelector.REGION);
 
-            if ((eurPrice == null) || (eurPrice > 20000) || (mileage == null)) {
-                return null;
-            }
+        String author = getString(items, PageSelector.AUTHOR);
 
-            return new CarDetails.Builder().link(baseUrl + carLink)
-                    .name(title + " " + generation)
-                    .eurPrice(eurPrice)
-                    .mileage(mileage)
-                    .updateDate(updateDate)
-                    .adType(adType)
-                    .region(region)
-                    .author(author)
-                    .yearOfFabrication(yearOfFabrication)
-                    .wheelSide(wheelSide)
-                    .nrOfSeats(nrOfSeats)
-                    .body(body)
-                    .nrOfDoors(nrOfDoors)
-                    .engineCapacity(engineCapacity)
-                    .horsepower(horsepower)
-                    .petrolType(petrolType)
-                    .gearsType(gearsType)
-                    .tractionType(tractionType)
-                    .color(color)
-                    .build();
+        CarDetails.Builder builder = new CarDetails.Builder().link(link)
+                .eurPrice(eurPrice)
+                .updateDate(updateDate)
+                .adType(adType)
+                .region(region)
+                .author(author);
+        String generation = extractFeatures(doc, builder);
 
-        } catch (IOException e) {
-            logger.error("Error fetching car details page: {}{} - {}",baseUrl, carLink, e.getMessage());
-            return null;
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        CarDetails carDetails = builder.name(generation != null ? title + " " + generation : title)
+                .model(modelKey(generation))
+                .build();
+        return carDetails.getMileage() != null ? carDetails : null;
     }
 
-    Integer getIntegerFromSection(Map<String, String> map, String element) {
-        Integer result = null;
-        String text = map.get(element);
-        if (text != null) {
-            try {
-                result = Integer.parseInt(text.replaceAll("\\D", ""));
-            } catch (NumberFormatException e) {
-                throw new NumberFormatException(e.getMessage());
-            }
-        }
-        return result;
+    String modelKey(String generation) {
+        return carBrand + " " + carModel + " " + (generation != null ? generation : carGeneration);
     }
 
-    void extractSection(Document doc, String cssQuery, Map<String, String> map) {
-        Elements generalitiesItems = doc.select(cssQuery);
-        for (Element item : generalitiesItems) {
-            Element keyElement = item.selectFirst("span.styles_group__key__uRhnQ");
-            Element valueElement = item.selectFirst("span.styles_group__value__XN7OI, a.styles_group__value__XN7OI");
-            if (keyElement != null && valueElement != null) {
-                map.put(keyElement.text(), valueElement.text());
+    String extractFeatures(Document doc, CarDetails.Builder builder) {
+        String generation = null;
+        for (PageSelector section : FEATURE_SECTIONS) {
+            for (Element item : doc.select(selectors.get(section))) {
+                Element keyElement = item.selectFirst(selectors.get(PageSelector.GROUP_KEY));
+                CarFeature feature = keyElement != null ? CarFeature.forLabel(keyElement.text()) : null;
+                Element valueElement = feature != null ? item.selectFirst(selectors.get(PageSelector.GROUP_VALUE)) : null;
+                if (valueElement == null) {
+                    continue;
+                }
+                if (feature == CarFeature.GENERATION) {
+                    generation = valueElement.text();
+                } else {
+                    feature.apply(builder, valueElement.text());
+                }
             }
         }
+        return generation;
     }
 
     Integer getEurPrice(String eurPriceText) {
@@ -303,28 +503,24 @@ public class Scraper {
         if (eurPriceText == null) {
             throw new NullPointerException("Price empty.");
         }
-        try {
-            if (eurPriceText.contains("€")) {
-                result = Integer.parseInt(eurPriceText.replaceAll("\\D", ""));
-            }
-        } catch (NumberFormatException e) {
-            throw new NumberFormatException(e.getMessage());
+        if (eurPriceText.contains("€")) {
+            result = DigitParser.parseDigits(eurPriceText);
         }
         return result;
     }
 
     String getTitle(Document doc) {
         String result = null;
-        Element titleElement = doc.selectFirst("h1");
+        Element titleElement = doc.selectFirst(selectors.get(PageSelector.TITLE));
         if (titleElement != null) {
             result = titleElement.text();
         }
         return result;
     }
 
-    String getAdInfo(Elements items, String cssQuery) {
+    String getAdInfo(Elements items, PageSelector selector) {
         String result = null;
-        Element element = items.selectFirst(cssQuery);
+        Element element = selectFirst(items, selector);
         if (element != null) {
             String text = element.text();
             result = text.substring(text.indexOf(":") + 1).trim();
@@ -332,66 +528,65 @@ public class Scraper {
         return result;
     }
 
-    String getString(Elements items, String cssQuery) {
+    String getString(Elements items, PageSelector selector) {
         String result = null;
-        Element element = items.selectFirst(cssQuery);
+        Element element = selectFirst(items, selector);
         if (element != null) {
             result = element.text();
         }
         return result;
     }
 
-    void printResults(List<CarDetails> finalProducts) {
-        checkFinalProducts(finalProducts);
+    private Element selectFirst(Elements items, PageSelector selector) {
+        for (Element item : items) {
+            Element element = item.selectFirst(selectors.get(selector));
+            if (element != null) {
+                return element;
+            }
+        }
+        return null;
+    }
 
-        CarDetails maxEntry = getMaxEntry(finalProducts);
+    void printResults(PriceStats stats) {
+        if (stats == null || stats.getCount() == 0) {
+            throw new IllegalArgumentException("Product list is empty or null");
+        }
 
-        CarDetails minEntry = getMinEntry(finalProducts);
+        CarDetails maxEntry = stats.getMaxEntry();
 
-        double avgPrice = getAvgPrice(finalProducts, 200000, 400000);
+        CarDetails minEntry = stats.getMinEntry();
+
+        double avgPrice = stats.getAvgPrice();
 
         System.out.println("Max price: " + maxEntry.getEurPrice() + " (Link: " + maxEntry.getLink() + ")");
         System.out.println("Min price: " + minEntry.getEurPrice() + " (Link: " + minEntry.getLink() + ")");
         System.out.printf(Locale.US,"Average price: %.2f%n", avgPrice);
     }
 
-    void checkFinalProducts(List<CarDetails> finalProducts) {
-        if (finalProducts == null || finalProducts.isEmpty()) {
-            throw new IllegalArgumentException("Product list is empty or null");
+    void saveBatch(List<CarDetails> batch, PriceStats stats) throws SQLException {
+        dbManager.saveCars(batch);
+        stats.recordAll(batch);
+        if (System.nanoTime() - lastPriceStatsRefresh >= config.getPriceStatsRefreshInterval().toNanos()) {
+            refreshPriceStats();
         }
     }
 
-    double getAvgPrice(List<CarDetails> finalProducts, int minMileage, int maxMileage) {
-        return finalProducts.stream()
-                .filter(c -> c.getMileage() != null && c.getEurPrice() != null && c.getMileage() > minMileage &&
-                        c.getMileage() < maxMileage && c.getAdType().equals("Vând"))
-                .mapToInt(CarDetails::getEurPrice)
-                .average()
-                .orElseThrow(() -> new RuntimeException("Cannot compute average - list is empty"));
-    }
-
-    CarDetails getMinEntry(List<CarDetails> finalProducts) {
-        return finalProducts.stream()
-                .filter(c -> c.getEurPrice() != null && c.getAdType().equals("Vând"))
-                .min(Comparator.comparingInt(CarDetails::getEurPrice))
-                .orElseThrow(() -> new RuntimeException("There is no min price"));
-    }
-
-    CarDetails getMaxEntry(List<CarDetails> finalProducts) {
-        return finalProducts.stream()
-                .filter(c -> c.getEurPrice() != null && c.getAdType().equals("Vând"))
-                .max(Comparator.comparingInt(CarDetails::getEurPrice))
-                .orElseThrow(() -> new RuntimeException("There is no max price"));
+    void refreshPriceStats() {
+        lastPriceStatsRefresh = System.nanoTime();
+        try {
+            dbManager.refreshPriceStats();
+        } catch (SQLException e) {
+            logger.warn("Could not refresh price statistics - {}", e.getMessage());
+        }
     }
 
-    void saveResults(List<CarDetails> finalProducts) throws SQLException{
-        if (finalProducts.isEmpty()) {
+    void reportResults(PriceStats stats) {
+        if (stats.getCount() == 0) {
             logger.info("No products found.");
             return;
         }
 
-        dbManager.saveCars(finalProducts);
-        printResults(finalProducts);
+        printResults(stats);
     }
 
     public void setWait(WebDriverWait wait) {
@@ -0,0 +1,69 @@
+package scraper.logic;
+
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.jsoup.select.Selector.SelectorParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+
+public class SelectorRegistry {
+    private static final String DEFAULTS = "/selectors.properties";
+
+    private final Map<PageSelector, String> queries = new EnumMap<>(PageSelector.class);
+    private final Map<PageSelector, Evaluator> evaluators = new EnumMap<>(PageSelector.class);
+
+    SelectorRegistry(Properties properties) {
+        for (PageSelector selector : PageSelector.values()) {
+            String query = properties.getProperty(selector.getKey());
+            if (query == null || query.isBlank()) {
+                throw new IllegalArgumentException("Missing selector: " + selector.getKey());
+            }
+            try {
+                evaluators.put(selector, QueryParser.parse(query.trim()));
+            } catch (SelectorParseException e) {
+                throw new IllegalArgumentException("Invalid selector " + selector.getKey() + ": " + query, e);
+            }
+            queries.put(selector, query.trim());
+        }
+    }
+
+    public static SelectorRegistry defaults() {
+        return load(null);
+    }
+
+    public static SelectorRegistry load(String overridesFile) {
+        Properties properties = new Properties();
+        try (InputStream in = SelectorRegistry.class.getResourceAsStream(DEFAULTS)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing classpath resource " + DEFAULTS);
+            }
+            properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            if (overridesFile != null && !overridesFile.isBlank()) {
+                try (Reader reader = Files.newBufferedReader(Path.of(overridesFile), StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load selectors", e);
+        }
+        return new SelectorRegistry(properties);
+    }
+
+    public Evaluator get(PageSelector selector) {
+        return evaluators.get(selector);
+    }
+
+    public String query(PageSelector selector) {
+        return queries.get(selector);
+    }
+}
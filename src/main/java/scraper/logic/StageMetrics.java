@@ -0,0 +1,36 @@
+package scraper.logic;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+public class StageMetrics {
+    private final String name;
+    private final IntSupplier queueDepth;
+    private final AtomicLong processed = new AtomicLong();
+    private final long startedAt = System.nanoTime();
+
+    public StageMetrics(String name, IntSupplier queueDepth) {
+        this.name = name;
+        this.queueDepth = queueDepth;
+    }
+
+    void recordProcessed(int count) {
+        processed.addAndGet(count);
+    }
+
+    public String getName() { return name; }
+    public int getQueueDepth() { return queueDepth.getAsInt(); }
+    public long getProcessed() { return processed.get(); }
+
+    public double getThroughputPerSecond() {
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1_000_000_000d;
+        return elapsedSeconds > 0 ? processed.get() / elapsedSeconds : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s[queue=%d, processed=%d, %.2f/s]",
+                name, getQueueDepth(), getProcessed(), getThroughputPerSecond());
+    }
+}
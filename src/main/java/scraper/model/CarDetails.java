@@ -3,6 +3,7 @@ package scraper.model;
 public class CarDetails {
     private final String link;
     private final String name;
+    private final String model;
     private final Integer eurPrice;
     private final Integer mileage;
     private final String updateDate;
@@ -24,6 +25,7 @@ public class CarDetails {
     private CarDetails(Builder builder) {
         this.link = builder.link;
         this.name = builder.name;
+        this.model = builder.model;
         this.eurPrice = builder.eurPrice;
         this.mileage = builder.mileage;
         this.updateDate = builder.updateDate;
@@ -46,6 +48,7 @@ public class CarDetails {
     public static class Builder {
         private String link;
         private String name;
+        private String model;
         private Integer eurPrice;
         private Integer mileage;
         private String updateDate;
@@ -74,6 +77,11 @@ public class CarDetails {
             return this;
         }
 
+        public Builder model(String model) {
+            this.model = model;
+            return this;
+        }
+
         public Builder eurPrice(Integer eurPrice) {
             this.eurPrice = eurPrice;
             return this;
@@ -166,6 +174,7 @@ public class CarDetails {
 
     public String getLink() { return link; }
     public String getName() { return name; }
+    public String getModel() { return model; }
     public Integer getEurPrice() { return eurPrice; }
     public Integer getMileage() { return mileage; }
     public String getUpdateDate() { return updateDate; }
@@ -0,0 +1,20 @@
+package scraper.model;
+
+public class ListingCard {
+    private final String href;
+    private final String title;
+    private final String priceText;
+    private final String dateText;
+
+    public ListingCard(String href, String title, String priceText, String dateText) {
+        this.href = href;
+        this.title = title;
+        this.priceText = priceText;
+        this.dateText = dateText;
+    }
+
+    public String getHref() { return href; }
+    public String getTitle() { return title; }
+    public String getPriceText() { return priceText; }
+    public String getDateText() { return dateText; }
+}
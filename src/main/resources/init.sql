@@ -72,6 +72,8 @@ CREATE TABLE particularities (
 CREATE TABLE cars (
                       id SERIAL PRIMARY KEY,
                       link TEXT UNIQUE NOT NULL,
+                      name TEXT,
+                      model TEXT,
                       region TEXT,
                       mileage INTEGER,
                       price_eur INTEGER,
@@ -79,3 +81,64 @@ CREATE TABLE cars (
                       ad_type_id INTEGER REFERENCES ad_type(id),
                       particularities_id INTEGER REFERENCES particularities(id)
 );
+
+CREATE UNLOGGED TABLE cars_staging (
+                              link TEXT,
+                              region TEXT,
+                              mileage INTEGER,
+                              price_eur INTEGER,
+                              update_date TIMESTAMP,
+                              ad_type TEXT,
+                              author TEXT,
+                              year_of_fabrication INTEGER,
+                              wheel_side TEXT,
+                              nr_of_seats TEXT,
+                              body TEXT,
+                              nr_of_doors TEXT,
+                              engine_capacity TEXT,
+                              horsepower TEXT,
+                              petrol_type TEXT,
+                              gears_type TEXT,
+                              traction_type TEXT,
+                              color TEXT,
+                              name TEXT,
+                              model TEXT
+);
+
+CREATE TABLE price_history (
+                               car_id INTEGER NOT NULL REFERENCES cars(id),
+                               price_eur INTEGER,
+                               mileage INTEGER,
+                               update_date TIMESTAMP,
+                               recorded_at TIMESTAMP NOT NULL DEFAULT now()
+) PARTITION BY RANGE (recorded_at);
+
+CREATE TABLE price_history_default PARTITION OF price_history DEFAULT;
+
+CREATE INDEX price_history_recorded_at_brin ON price_history USING BRIN (recorded_at);
+CREATE INDEX price_history_car_id_idx ON price_history (car_id);
+
+CREATE INDEX cars_price_eur_idx ON cars (price_eur);
+CREATE INDEX cars_mileage_idx ON cars (mileage);
+CREATE INDEX cars_update_date_idx ON cars (update_date);
+CREATE INDEX cars_particularities_id_idx ON cars (particularities_id);
+CREATE INDEX particularities_year_of_fabrication_idx ON particularities (year_of_fabrication);
+
+CREATE MATERIALIZED VIEW price_stats AS
+SELECT COALESCE(c.model, 'unknown') AS model,
+       p.year_of_fabrication,
+       pt.name AS petrol_type,
+       COUNT(*) AS ads,
+       MIN(c.price_eur) AS min_price,
+       MAX(c.price_eur) AS max_price,
+       ROUND(AVG(c.price_eur), 2) AS avg_price,
+       percentile_cont(0.25) WITHIN GROUP (ORDER BY c.price_eur) AS p25_price,
+       percentile_cont(0.5) WITHIN GROUP (ORDER BY c.price_eur) AS median_price,
+       percentile_cont(0.75) WITHIN GROUP (ORDER BY c.price_eur) AS p75_price
+FROM cars c
+JOIN particularities p ON c.particularities_id = p.id
+LEFT JOIN petrol_type pt ON p.petrol_type_id = pt.id
+WHERE c.price_eur IS NOT NULL
+GROUP BY COALESCE(c.model, 'unknown'), p.year_of_fabrication, pt.name;
+
+CREATE UNIQUE INDEX price_stats_bucket_idx ON price_stats (model, year_of_fabrication, petrol_type) NULLS NOT DISTINCT;
@@ -6,10 +6,14 @@ import org.junit.jupiter.api.Test;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import scraper.config.ScraperConfig;
 import scraper.model.CarDetails;
 
 import java.sql.*;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -43,6 +47,7 @@ class DatabaseManagerIT {
 
     @AfterEach
     void tearDown() throws SQLException {
+        databaseManager.close();
         if (connection != null && !connection.isClosed()) {
             connection.close();
         }
@@ -186,6 +191,15 @@ class DatabaseManagerIT {
         }
     }
 
+    @Test
+    void testPoolMetrics_ConnectionsReturnedAfterSave() throws SQLException {
+        databaseManager.saveCars(List.of(new CarDetails.Builder().link("https://999.md/ro/car").build()));
+
+        PoolMetrics metrics = databaseManager.getPoolMetrics();
+        assertEquals(0, metrics.getActive());
+        assertTrue(metrics.getTotal() >= 1);
+    }
+
     @Test
     void testSetNullableString_WithNullValue() throws SQLException {
         String sql = "INSERT INTO wheel_side (name) VALUES (?)";
@@ -321,6 +335,319 @@ class DatabaseManagerIT {
         assertEquals(firstId, secondId);
     }
 
+    @Test
+    void testSaveCars_ResolvesSharedLookupValuesOnce() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("INSERT INTO body (\"name\") VALUES ('Sedan')");
+        }
+        List<CarDetails> cars = List.of(
+                new CarDetails.Builder().link("https://999.md/ro/1").body("Sedan").color("Alb").build(),
+                new CarDetails.Builder().link("https://999.md/ro/2").body("Hatchback").color("Alb").build(),
+                new CarDetails.Builder().link("https://999.md/ro/3").body("Sedan").color("Negru").build());
+
+        databaseManager.saveCars(cars);
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("""
+                     SELECT (SELECT COUNT(*) FROM body) AS bodies, (SELECT COUNT(*) FROM color) AS colors,
+                            (SELECT COUNT(*) FROM cars c JOIN particularities p ON c.particularities_id = p.id
+                             JOIN body b ON p.body_id = b.id WHERE b.name = 'Sedan') AS sedans
+                     """)) {
+            assertTrue(rs.next());
+            assertEquals(2, rs.getInt("bodies"));
+            assertEquals(2, rs.getInt("colors"));
+            assertEquals(2, rs.getInt("sedans"));
+        }
+    }
+
+    @Test
+    void testSaveCars_RescrapeDoesNotLeaveOrphanParticularities() throws SQLException {
+        List<CarDetails> cars = List.of(
+                new CarDetails.Builder().link("https://999.md/ro/1?ref=list").author("Ion").build(),
+                new CarDetails.Builder().link("https://999.md/ro/1").author("Ion").build(),
+                new CarDetails.Builder().link("https://999.md/ro/2").author("Ana")
+                        .updateDate("12 mai. 2025, 14:30").build());
+
+        databaseManager.saveCars(cars);
+        databaseManager.saveCars(cars);
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("""
+                     SELECT (SELECT COUNT(*) FROM cars) AS cars,
+                            (SELECT COUNT(*) FROM particularities) AS particularities,
+                            (SELECT COUNT(*) FROM particularities p
+                             WHERE NOT EXISTS (SELECT 1 FROM cars c WHERE c.particularities_id = p.id)) AS orphans
+                     """)) {
+            assertTrue(rs.next());
+            assertEquals(2, rs.getInt("cars"));
+            assertEquals(2, rs.getInt("particularities"));
+            assertEquals(0, rs.getInt("orphans"));
+        }
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT update_date FROM cars WHERE link = 'https://999.md/ro/2'")) {
+            assertTrue(rs.next());
+            assertEquals(Timestamp.valueOf("2025-05-12 14:30:00"), rs.getTimestamp("update_date"));
+        }
+    }
+
+    @Test
+    void testSaveCars_UpdatesChangedAdsAndRecordsPriceHistory() throws SQLException {
+        CarDetails original = new CarDetails.Builder().link("https://999.md/ro/1").eurPrice(9000).mileage(150000).build();
+        CarDetails cheaper = new CarDetails.Builder().link("https://999.md/ro/1").eurPrice(8500).mileage(150000).build();
+
+        databaseManager.saveCars(List.of(original));
+        long xminBefore = carXmin("https://999.md/ro/1");
+        databaseManager.saveCars(List.of(original));
+        assertEquals(xminBefore, carXmin("https://999.md/ro/1"), "Unchanged ad must not be rewritten");
+        databaseManager.saveCars(List.of(cheaper));
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("""
+                     SELECT c.price_eur, (SELECT COUNT(*) FROM particularities) AS particularities,
+                            array_agg(h.price_eur ORDER BY h.recorded_at) AS history
+                     FROM cars c JOIN price_history h ON h.car_id = c.id
+                     GROUP BY c.price_eur
+                     """)) {
+            assertTrue(rs.next());
+            assertEquals(8500, rs.getInt("price_eur"));
+            assertEquals(1, rs.getInt("particularities"));
+            assertArrayEquals(new Integer[]{9000, 8500}, (Integer[]) rs.getArray("history").getArray());
+            assertFalse(rs.next());
+        }
+    }
+
+    private long carXmin(String link) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT xmin::text::bigint FROM cars WHERE link = ?")) {
+            stmt.setString(1, link);
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next());
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    @Test
+    void testFindKnownAds_ReturnsStoredUpdateDates() throws SQLException {
+        databaseManager.saveCars(List.of(
+                new CarDetails.Builder().link("https://999.md/ro/1").updateDate("12 mai. 2025, 14:30").build(),
+                new CarDetails.Builder().link("https://999.md/ro/2").build()));
+
+        Map<String, Timestamp> known = databaseManager.findKnownAds(
+                List.of("https://999.md/ro/1", "https://999.md/ro/2", "https://999.md/ro/3"));
+
+        assertEquals(Set.of("https://999.md/ro/1", "https://999.md/ro/2"), known.keySet());
+        assertEquals(Timestamp.valueOf("2025-05-12 14:30:00"), known.get("https://999.md/ro/1"));
+        assertNull(known.get("https://999.md/ro/2"));
+    }
+
+    @Test
+    void testRefreshPriceStats_AggregatesPerBucket() throws SQLException {
+        String model = "Renault Megane III (2008 - 2016)";
+        databaseManager.saveCars(List.of(
+                new CarDetails.Builder().link("https://999.md/ro/1").name("Renault Megane 1.5 dCi urgent")
+                        .model(model).yearOfFabrication(2012).petrolType("Diesel").eurPrice(6000).build(),
+                new CarDetails.Builder().link("https://999.md/ro/2").name("Renault Megane III stare ideala")
+                        .model(model).yearOfFabrication(2012).petrolType("Diesel").eurPrice(8000).build(),
+                new CarDetails.Builder().link("https://999.md/ro/3").name("Renault Megane").model(model)
+                        .eurPrice(5000).build(),
+                new CarDetails.Builder().link("https://999.md/ro/4").name("Renault Megane").eurPrice(4000).build()));
+
+        databaseManager.refreshPriceStats();
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("""
+                     SELECT ads, min_price, max_price, avg_price, median_price FROM price_stats
+                     WHERE model = 'Renault Megane III (2008 - 2016)' AND year_of_fabrication = 2012
+                       AND petrol_type = 'Diesel'
+                     """)) {
+            assertTrue(rs.next());
+            assertEquals(2, rs.getInt("ads"));
+            assertEquals(6000, rs.getInt("min_price"));
+            assertEquals(8000, rs.getInt("max_price"));
+            assertEquals(7000, rs.getDouble("avg_price"));
+            assertEquals(7000, rs.getDouble("median_price"));
+        }
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM price_stats")) {
+            assertTrue(rs.next());
+            assertEquals(3, rs.getInt(1));
+        }
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT ads, min_price FROM price_stats WHERE model = 'unknown'")) {
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt("ads"));
+            assertEquals(4000, rs.getInt("min_price"));
+        }
+    }
+
+    @Test
+    void testAssignMissingModel_KeepsExistingModels() throws SQLException {
+        databaseManager.saveCars(List.of(
+                new CarDetails.Builder().link("https://999.md/ro/1").build(),
+                new CarDetails.Builder().link("https://999.md/ro/2").model("Renault Megane II").build()));
+
+        databaseManager.assignMissingModel(List.of("https://999.md/ro/1", "https://999.md/ro/2"),
+                "Renault Megane III (2008 - 2016)");
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT link, model FROM cars ORDER BY link")) {
+            assertTrue(rs.next());
+            assertEquals("Renault Megane III (2008 - 2016)", rs.getString("model"));
+            assertTrue(rs.next());
+            assertEquals("Renault Megane II", rs.getString("model"));
+        }
+    }
+
+    @Test
+    void testBulkLoadMode_CopiesThroughStagingTable() throws SQLException {
+        ScraperConfig config = new ScraperConfig.Builder().bulkLoadMode(true).build();
+        List<CarDetails> cars = List.of(
+                new CarDetails.Builder().link("https://999.md/ro/1?ref=list").author("Ion \"Nea\", Orhei")
+                        .body("Sedan").nrOfSeats(5).adType("Vând").eurPrice(9000).build(),
+                new CarDetails.Builder().link("https://999.md/ro/2").body("Sedan").color("Alb")
+                        .updateDate("12 mai. 2025, 14:30").build());
+
+        try (DatabaseManager bulkManager = new DatabaseManager(postgres.getJdbcUrl(), postgres.getUsername(),
+                postgres.getPassword(), config)) {
+            bulkManager.saveCars(cars);
+            bulkManager.saveCars(cars);
+        }
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("""
+                     SELECT c.link, c.price_eur, p.author, b.name AS body, ns.name AS nr_of_seats, ad.name AS ad_type,
+                            (SELECT COUNT(*) FROM cars) AS cars, (SELECT COUNT(*) FROM particularities) AS particularities,
+                            (SELECT COUNT(*) FROM body) AS bodies, (SELECT COUNT(*) FROM cars_staging) AS staged
+                     FROM cars c
+                     JOIN particularities p ON c.particularities_id = p.id
+                     JOIN body b ON p.body_id = b.id
+                     JOIN nr_of_seats ns ON p.nr_of_seats_id = ns.id
+                     JOIN ad_type ad ON c.ad_type_id = ad.id
+                     """)) {
+            assertTrue(rs.next());
+            assertEquals("https://999.md/ro/1", rs.getString("link"));
+            assertEquals(9000, rs.getInt("price_eur"));
+            assertEquals("Ion \"Nea\", Orhei", rs.getString("author"));
+            assertEquals("Sedan", rs.getString("body"));
+            assertEquals("5", rs.getString("nr_of_seats"));
+            assertEquals("Vând", rs.getString("ad_type"));
+            assertEquals(2, rs.getInt("cars"));
+            assertEquals(2, rs.getInt("particularities"));
+            assertEquals(1, rs.getInt("bodies"));
+            assertEquals(0, rs.getInt("staged"));
+        }
+    }
+
+    @Test
+    void testUpgradeSchema_CreatesStagingTableOnExistingDatabase() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP TABLE cars_staging");
+        }
+
+        databaseManager.upgradeSchema();
+        databaseManager.upgradeSchema();
+
+        try (DatabaseManager bulkManager = new DatabaseManager(postgres.getJdbcUrl(), postgres.getUsername(),
+                postgres.getPassword(), new ScraperConfig.Builder().bulkLoadMode(true).build())) {
+            bulkManager.saveCars(List.of(new CarDetails.Builder().link("https://999.md/ro/1").eurPrice(9000).build()));
+        }
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM cars")) {
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void testUpgradeSchema_UpgradesPreviousCarsSchema() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP MATERIALIZED VIEW price_stats");
+            stmt.execute("DROP INDEX cars_price_eur_idx");
+            stmt.execute("ALTER TABLE cars DROP COLUMN name, DROP COLUMN model");
+            stmt.execute("CREATE MATERIALIZED VIEW price_stats AS SELECT link AS model FROM cars");
+        }
+
+        databaseManager.upgradeSchema();
+        databaseManager.upgradeSchema();
+
+        databaseManager.saveCars(List.of(new CarDetails.Builder().link("https://999.md/ro/car").name("Renault Megane")
+                .eurPrice(15000).mileage(100000).build()));
+        databaseManager.refreshPriceStats();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("""
+                     SELECT (SELECT name FROM cars) AS name,
+                            (SELECT COUNT(*) FROM pg_indexes WHERE indexname = 'cars_price_eur_idx') AS indexes,
+                            (SELECT definition FROM pg_matviews WHERE matviewname = 'price_stats') AS view
+                     """)) {
+            assertTrue(rs.next());
+            assertEquals("Renault Megane", rs.getString("name"));
+            assertEquals(1, rs.getInt("indexes"));
+            assertTrue(rs.getString("view").contains("COALESCE(c.model"));
+        }
+    }
+
+    @Test
+    void testUpgradeSchema_CreatesPriceHistoryPartitions() throws SQLException {
+        databaseManager.upgradeSchema();
+
+        int year = java.time.LocalDate.now().getYear();
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT to_regclass(?), to_regclass(?)")) {
+            stmt.setString(1, "price_history_" + year);
+            stmt.setString(2, "price_history_" + (year + 1));
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next());
+                assertNotNull(rs.getString(1));
+                assertNotNull(rs.getString(2));
+            }
+        }
+    }
+
+    @Test
+    void testEnsurePriceHistoryPartition_MovesRowsOutOfDefault() throws SQLException {
+        CarDetails car = new CarDetails.Builder().link("https://999.md/ro/car").eurPrice(15000).mileage(100000).build();
+        databaseManager.saveCars(List.of(car));
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS price_history_2040");
+            stmt.execute("INSERT INTO price_history (car_id, price_eur, recorded_at) " +
+                    "SELECT id, 14000, '2040-06-01' FROM cars");
+        }
+
+        connection.setAutoCommit(false);
+        databaseManager.ensurePriceHistoryPartition(connection, 2040);
+        connection.commit();
+        connection.setAutoCommit(true);
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("""
+                     SELECT (SELECT COUNT(*) FROM price_history_2040) AS in_partition,
+                            (SELECT COUNT(*) FROM price_history_default WHERE recorded_at >= '2040-01-01') AS in_default,
+                            (SELECT COUNT(*) FROM price_history) AS total
+                     """)) {
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt("in_partition"));
+            assertEquals(0, rs.getInt("in_default"));
+            assertEquals(2, rs.getInt("total"));
+        }
+    }
+
+    @Test
+    void testPreloadLookups_ServesIdsFromCache() throws SQLException {
+        Integer existingId;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("INSERT INTO color (\"name\") VALUES ('Roșu') RETURNING id")) {
+            assertTrue(rs.next());
+            existingId = rs.getInt("id");
+        }
+
+        databaseManager.preloadLookups();
+        assertEquals(1, databaseManager.lookupCacheSize());
+
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("DELETE FROM color");
+        }
+        assertEquals(existingId, databaseManager.getOrInsertLookup(connection, "color", "Roșu"));
+    }
+
     @Test
     void testGetOrInsertLookup_DifferentValues_InsertSeparately() throws SQLException {
         String value1 = "NameOne";
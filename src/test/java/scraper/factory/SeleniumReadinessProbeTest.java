@@ -0,0 +1,67 @@
+package scraper.factory;
+
+import org.junit.jupiter.api.Test;
+import scraper.http.Backoff;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SeleniumReadinessProbeTest {
+    private static final String READY = "{\"value\": {\"ready\": true, \"message\": \"Selenium Grid ready.\"}}";
+    private static final String NOT_READY = "{\"value\": {\"ready\": false, \"message\": \"Session slots busy.\"}}";
+
+    private final HttpClient client = mock(HttpClient.class);
+    private final SeleniumReadinessProbe probe = new SeleniumReadinessProbe(client, Duration.ofSeconds(5),
+            new Backoff(Duration.ofMillis(1), Duration.ofMillis(5)));
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<Object> response(int status, String body) {
+        HttpResponse<Object> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn(body);
+        return response;
+    }
+
+    @Test
+    void testIsReadyStatus() {
+        assertTrue(probe.isReadyStatus(READY));
+        assertFalse(probe.isReadyStatus(NOT_READY));
+        assertFalse(probe.isReadyStatus("{\"value\": {}}"));
+        assertFalse(probe.isReadyStatus("<html>starting</html>"));
+    }
+
+    @Test
+    void testStatusUri_ReplacesHubPath() throws Exception {
+        assertEquals(URI.create("http://selenium-chrome:4444/status"),
+                SeleniumReadinessProbe.statusUri(new URL("http://selenium-chrome:4444/wd/hub")));
+    }
+
+    @Test
+    void testAwaitReady_PollsUntilReady() throws Exception {
+        doReturn(response(200, NOT_READY), response(503, ""), response(200, READY))
+                .when(client).send(any(), any());
+
+        probe.awaitReady(new URL("http://localhost:4444/wd/hub"));
+
+        verify(client, times(3)).send(any(), any());
+    }
+
+    @Test
+    void testAwaitReady_ThrowsAfterDeadline() throws Exception {
+        doThrow(new IOException("connection refused")).when(client).send(any(), any());
+        SeleniumReadinessProbe shortProbe = new SeleniumReadinessProbe(client, Duration.ofMillis(100),
+                new Backoff(Duration.ofMillis(1), Duration.ofMillis(5)));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> shortProbe.awaitReady(new URL("http://localhost:4444/wd/hub")));
+        assertTrue(exception.getMessage().contains("http://localhost:4444/status"));
+    }
+}
@@ -0,0 +1,83 @@
+package scraper.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(4, 0.5, Duration.ofSeconds(30), now::get);
+
+    @Test
+    void testRecordFailure_OpensWhenFailureRateReachesThreshold() {
+        breaker.recordSuccess();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(Duration.ofSeconds(30).toNanos(), breaker.remainingOpenNanos());
+    }
+
+    @Test
+    void testRecordFailure_OldOutcomesLeaveTheWindow() {
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordSuccess();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpen_SuccessClosesTheBreaker() {
+        for (int i = 0; i < 4; i++) {
+            breaker.recordFailure();
+        }
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpen_FailureReopensTheBreaker() {
+        for (int i = 0; i < 4; i++) {
+            breaker.recordFailure();
+        }
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertEquals(0, breaker.remainingOpenNanos());
+
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpen_AdmitsSingleProbe() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            breaker.recordFailure();
+        }
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        breaker.awaitPermission();
+
+        Thread second = Thread.ofVirtual().start(() -> {
+            try {
+                breaker.awaitPermission();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        second.join(200);
+        assertTrue(second.isAlive(), "Second caller should wait while the probe is outstanding");
+
+        breaker.recordSuccess();
+        second.join(5000);
+        assertFalse(second.isAlive());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
@@ -0,0 +1,91 @@
+package scraper.http;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.select.QueryParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingDocumentReaderTest {
+    private final StreamingDocumentReader reader = new StreamingDocumentReader(List.of(
+            QueryParser.parse("h1"), QueryParser.parse("div.aside"), QueryParser.parse("div.features")));
+
+    private static final String PAGE = "<html><head><title>Car</title><script>var x = 1;</script></head><body>" +
+            "<nav><a href=\"/\">Home</a></nav>" +
+            "<div class=\"content\"><h1>Renault Megane</h1>" +
+            "<div class=\"gallery\"><img src=\"1.jpg\"><img src=\"2.jpg\"></div>" +
+            "<div class=\"aside\"><p>Tip: Vând</p><span>15000 €</span></div>" +
+            "<div class=\"features\"><ul><li><span>Rulaj</span><span>100000 km</span></li></ul></div>";
+
+    private static final class CountingStream extends ByteArrayInputStream {
+        private CountingStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        int consumed() {
+            return pos;
+        }
+    }
+
+    @Test
+    void testRead_KeepsOnlyFirstMatchOfEachBlock() throws IOException {
+        String page = PAGE.replace("<div class=\"features\">",
+                "<div class=\"aside\"><p>Similar ad</p></div><div class=\"features\">");
+        InputStream body = new ByteArrayInputStream((page + "</div></body></html>").getBytes(StandardCharsets.UTF_8));
+
+        Document doc = reader.read(body, "UTF-8", "https://example.com/car");
+
+        assertEquals(1, doc.select("div.aside").size());
+        assertEquals("Tip: Vând 15000 €", doc.selectFirst("div.aside").text());
+        assertNotNull(doc.selectFirst("div.features"));
+    }
+
+    @Test
+    void testRead_KeepsOnlyRequiredBlocks() throws IOException {
+        InputStream body = new ByteArrayInputStream((PAGE + "<footer>Contact</footer></div></body></html>")
+                .getBytes(StandardCharsets.UTF_8));
+
+        Document doc = reader.read(body, "UTF-8", "https://999.md/car");
+
+        assertEquals("Renault Megane", doc.selectFirst("h1").text());
+        assertEquals("Tip: Vând 15000 €", doc.selectFirst("div.aside").text());
+        assertEquals("100000 km", doc.select("div.features li span").last().text());
+        assertNull(doc.selectFirst("nav"));
+        assertNull(doc.selectFirst("div.gallery"));
+        assertNull(doc.selectFirst("script"));
+    }
+
+    @Test
+    void testRead_StopsOnceAllBlocksAreComplete() throws IOException {
+        byte[] tail = "<p>related ad</p>".repeat(50_000).getBytes(StandardCharsets.UTF_8);
+        byte[] head = PAGE.getBytes(StandardCharsets.UTF_8);
+        byte[] page = new byte[head.length + tail.length];
+        System.arraycopy(head, 0, page, 0, head.length);
+        System.arraycopy(tail, 0, page, head.length, tail.length);
+        CountingStream body = new CountingStream(page);
+
+        Document doc = reader.read(body, null, "https://999.md/car");
+
+        assertNotNull(doc.selectFirst("div.features"));
+        assertTrue(body.consumed() < page.length / 4, "Read " + body.consumed() + " of " + page.length + " bytes");
+        assertNull(doc.selectFirst("p:contains(related ad)"));
+    }
+
+    @Test
+    void testRead_MissingBlockReadsWholePage() throws IOException {
+        InputStream body = new ByteArrayInputStream("<h1>Renault Megane</h1><div class=\"aside\">Tip: Vând</div>"
+                .getBytes(StandardCharsets.UTF_8));
+
+        Document doc = reader.read(body, "no-such-charset", "https://999.md/car");
+
+        assertEquals("Renault Megane", doc.selectFirst("h1").text());
+        assertEquals("Tip: Vând", doc.selectFirst("div.aside").text());
+        assertNull(doc.selectFirst("div.features"));
+    }
+}
@@ -0,0 +1,57 @@
+package scraper.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+    private final AtomicLong now = new AtomicLong();
+    private final TokenBucketRateLimiter rateLimiter =
+            new TokenBucketRateLimiter(2, 3, Duration.ZERO, now::get);
+
+    @Test
+    void testReserve_BurstIsAvailableImmediately() {
+        assertEquals(0, rateLimiter.reserve("999.md"));
+        assertEquals(0, rateLimiter.reserve("999.md"));
+        assertEquals(0, rateLimiter.reserve("999.md"));
+        assertEquals(500_000_000L, rateLimiter.reserve("999.md"));
+    }
+
+    @Test
+    void testReserve_RefillsAtConfiguredRate() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.reserve("999.md");
+        }
+        now.addAndGet(Duration.ofMillis(500).toNanos());
+        assertEquals(0, rateLimiter.reserve("999.md"));
+        assertTrue(rateLimiter.reserve("999.md") > 0);
+    }
+
+    @Test
+    void testReserve_HostsHaveSeparateBuckets() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.reserve("999.md");
+        }
+        assertEquals(0, rateLimiter.reserve("other.md"));
+    }
+
+    @Test
+    void testPause_BlocksHostUntilRetryAfterElapses() {
+        rateLimiter.pause("999.md", Duration.ofSeconds(10));
+        assertEquals(Duration.ofSeconds(10).toNanos(), rateLimiter.reserve("999.md"));
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertEquals(500_000_000L, rateLimiter.reserve("999.md"));
+
+        now.addAndGet(Duration.ofMillis(500).toNanos());
+        assertEquals(0, rateLimiter.reserve("999.md"));
+    }
+
+    @Test
+    void testConstructor_InvalidRate_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(0, 1, Duration.ZERO));
+    }
+}
@@ -0,0 +1,30 @@
+package scraper.logic;
+
+import org.junit.jupiter.api.Test;
+import scraper.model.CarDetails;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CarFeatureTest {
+
+    @Test
+    void testForLabelFindsEveryFeature() {
+        for (CarFeature feature : CarFeature.values()) {
+            assertSame(feature, CarFeature.forLabel(feature.getLabel()));
+        }
+        assertNull(CarFeature.forLabel("Stare"));
+    }
+
+    @Test
+    void testApplyConvertsValues() {
+        CarDetails.Builder builder = new CarDetails.Builder();
+        CarFeature.MILEAGE.apply(builder, "215 000 km");
+        CarFeature.ENGINE_CAPACITY.apply(builder, "1 461 cm³");
+        CarFeature.PETROL_TYPE.apply(builder, "Diesel");
+
+        CarDetails details = builder.build();
+        assertEquals(215000, details.getMileage());
+        assertEquals(1461, details.getEngineCapacity());
+        assertEquals("Diesel", details.getPetrolType());
+    }
+}
@@ -5,6 +5,9 @@ import org.junit.jupiter.api.Test;
 import java.sql.Timestamp;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.Locale;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -80,5 +83,17 @@ class DatabaseManagerHelperTest {
         String invalidDate = "invalid date format";
         Timestamp result = databaseManagerHelper.parseRomanianDate(invalidDate);
         assertNull(result);
+        assertEquals(1, databaseManagerHelper.getFailedParses());
+    }
+
+    @Test
+    void testParseRomanianDate_WithRelativeDays() {
+        Clock clock = Clock.fixed(Instant.parse("2025-05-12T08:00:00Z"), ZoneOffset.UTC);
+        DatabaseManagerHelper helper = new DatabaseManagerHelper(clock);
+
+        assertEquals(Timestamp.valueOf("2025-05-12 14:30:00"), helper.parseRomanianDate("azi, 14:30"));
+        assertEquals(Timestamp.valueOf("2025-05-11 09:05:00"), helper.parseRomanianDate("Ieri, 9:05"));
+        assertNull(helper.parseRomanianDate("azi, mai tarziu"));
+        assertEquals(1, helper.getFailedParses());
     }
 }
@@ -0,0 +1,307 @@
+package scraper.logic;
+
+import org.jsoup.HttpStatusException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import scraper.config.ScraperConfig;
+import scraper.http.FetchedPage;
+import scraper.model.CarDetails;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class DetailPipelineTest {
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Logger loggerMock = mock(Logger.class);
+    private final List<List<CarDetails>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static ScraperConfig config(int queueCapacity, int maxInFlight, int batchSize) {
+        return new ScraperConfig.Builder()
+                .linkQueueCapacity(queueCapacity)
+                .stageQueueCapacity(queueCapacity)
+                .maxInFlightRequests(maxInFlight)
+                .parseThreads(2)
+                .persistBatchSize(batchSize)
+                .fetchBackoffBase(Duration.ofMillis(1))
+                .fetchBackoffMax(Duration.ofMillis(5))
+                .build();
+    }
+
+    private static FetchedPage page(String link) {
+        return new FetchedPage(link, link.getBytes(StandardCharsets.UTF_8), "UTF-8");
+    }
+
+    private static CarDetails details(FetchedPage page) {
+        return new CarDetails.Builder().link(page.getUrl()).build();
+    }
+
+    private int persistedCount() {
+        return batches.stream().mapToInt(List::size).sum();
+    }
+
+    @Test
+    void testFinish_PersistsAllSubmittedLinksInBatches() throws Exception {
+        DetailPipeline pipeline = new DetailPipeline(config(2, 4, 3), executor,
+                DetailPipelineTest::page, DetailPipelineTest::details, batches::add, loggerMock);
+
+        pipeline.start();
+        for (int i = 0; i < 10; i++) {
+            pipeline.submit("/car" + i);
+        }
+        pipeline.finish();
+
+        assertEquals(10, persistedCount());
+        assertEquals(4, batches.size());
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 3));
+    }
+
+    @Test
+    void testFinish_EmptyLinkDoesNotStopDispatcher() throws Exception {
+        DetailPipeline pipeline = new DetailPipeline(config(2, 2, 10), executor,
+                DetailPipelineTest::page, DetailPipelineTest::details, batches::add, loggerMock);
+
+        pipeline.start();
+        pipeline.submit("");
+        pipeline.submit("/car1");
+        pipeline.finish();
+
+        assertEquals(2, persistedCount());
+    }
+
+    @Test
+    void testFinish_BulkLoadModeUsesBulkBatchSize() throws Exception {
+        ScraperConfig config = new ScraperConfig.Builder()
+                .parseThreads(2)
+                .persistBatchSize(2)
+                .bulkLoadMode(true)
+                .bulkLoadBatchSize(100)
+                .build();
+        DetailPipeline pipeline = new DetailPipeline(config, executor,
+                DetailPipelineTest::page, DetailPipelineTest::details, batches::add, loggerMock);
+
+        pipeline.start();
+        for (int i = 0; i < 10; i++) {
+            pipeline.submit("/car" + i);
+        }
+        pipeline.finish();
+
+        assertEquals(1, batches.size());
+        assertEquals(10, persistedCount());
+    }
+
+    @Test
+    void testPersist_FlushesPartialBatchAfterInterval() throws Exception {
+        ScraperConfig config = new ScraperConfig.Builder()
+                .parseThreads(1)
+                .persistBatchSize(100)
+                .persistFlushInterval(Duration.ofMillis(20))
+                .build();
+        DetailPipeline pipeline = new DetailPipeline(config, executor,
+                DetailPipelineTest::page, DetailPipelineTest::details, batches::add, loggerMock);
+
+        pipeline.start();
+        pipeline.submit("/car1");
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (batches.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(List.of(List.of("/car1")),
+                batches.stream().map(batch -> batch.stream().map(CarDetails::getLink).toList()).toList());
+        pipeline.finish();
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    void testFinish_ReportsStageMetrics() throws Exception {
+        DetailPipeline pipeline = new DetailPipeline(config(2, 2, 10), executor,
+                DetailPipelineTest::page, DetailPipelineTest::details, batches::add, loggerMock);
+
+        pipeline.start();
+        pipeline.submit("/car1");
+        pipeline.submit("/car2");
+        pipeline.finish();
+
+        List<StageMetrics> metrics = pipeline.getMetrics();
+        assertEquals(List.of("fetch", "parse", "persist"), metrics.stream().map(StageMetrics::getName).toList());
+        assertTrue(metrics.stream().allMatch(m -> m.getProcessed() == 2 && m.getQueueDepth() == 0));
+    }
+
+    @Test
+    void testProcess_NullAndFailedDetailsAreSkipped() throws Exception {
+        DetailPipeline pipeline = new DetailPipeline(config(2, 2, 10), executor, link -> {
+            if (link.equals("/broken")) {
+                throw new IllegalStateException("boom");
+            }
+            return page(link);
+        }, page -> page.getUrl().equals("/filtered") ? null : details(page), batches::add, loggerMock);
+
+        pipeline.start();
+        pipeline.submit("/car");
+        pipeline.submit("/filtered");
+        pipeline.submit("/broken");
+        pipeline.finish();
+
+        assertEquals(1, persistedCount());
+        assertEquals("/car", batches.get(0).get(0).getLink());
+        verify(loggerMock).error(any(String.class), eq("/broken"), any(IllegalStateException.class));
+    }
+
+    @Test
+    void testFetch_RetriesTransientFailures() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        DetailPipeline pipeline = new DetailPipeline(config(2, 2, 10), executor, link -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new IOException("connection reset");
+            }
+            return page(link);
+        }, DetailPipelineTest::details, batches::add, loggerMock);
+
+        pipeline.start();
+        pipeline.submit("/car");
+        pipeline.finish();
+
+        assertEquals(3, calls.get());
+        assertEquals(1, persistedCount());
+        assertTrue(pipeline.getDeadLetters().isEmpty());
+    }
+
+    @Test
+    void testFetch_ExhaustedRetriesGoToDeadLetters() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        DetailPipeline pipeline = new DetailPipeline(config(2, 2, 10), executor, link -> {
+            calls.incrementAndGet();
+            throw new IOException("timeout");
+        }, DetailPipelineTest::details, batches::add, loggerMock);
+
+        pipeline.start();
+        pipeline.submit("/car");
+        pipeline.finish();
+
+        assertEquals(3, calls.get());
+        assertEquals(List.of("/car"), pipeline.getDeadLetters());
+        assertEquals(0, persistedCount());
+    }
+
+    @Test
+    void testFetch_ClientErrorsAreNotRetried() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        DetailPipeline pipeline = new DetailPipeline(config(2, 2, 10), executor, link -> {
+            calls.incrementAndGet();
+            throw new HttpStatusException("HTTP error fetching URL", 404, link);
+        }, DetailPipelineTest::details, batches::add, loggerMock);
+
+        pipeline.start();
+        pipeline.submit("/gone");
+        pipeline.finish();
+
+        assertEquals(1, calls.get());
+        assertTrue(pipeline.getDeadLetters().isEmpty());
+    }
+
+    @Test
+    void testFinish_RethrowsWriteFailure() throws Exception {
+        DetailPipeline pipeline = new DetailPipeline(config(2, 2, 1), executor,
+                DetailPipelineTest::page, DetailPipelineTest::details, batch -> {
+                    throw new SQLException("db down");
+                }, loggerMock);
+
+        pipeline.start();
+        pipeline.submit("/car");
+
+        SQLException exception = assertThrows(SQLException.class, pipeline::finish);
+        assertEquals("db down", exception.getMessage());
+    }
+
+    @Test
+    void testFinish_RecordsUnexpectedWriterError() throws Exception {
+        DetailPipeline pipeline = new DetailPipeline(config(2, 2, 1), executor,
+                DetailPipelineTest::page, DetailPipelineTest::details, batch -> {
+                    throw new IllegalStateException("writer closed");
+                }, loggerMock);
+
+        pipeline.start();
+        for (int i = 0; i < 5; i++) {
+            pipeline.submit("/car" + i);
+        }
+
+        SQLException exception = assertThrows(SQLException.class, pipeline::finish);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    @Test
+    void testPersist_RetriesFailedBatch() throws Exception {
+        AtomicInteger writes = new AtomicInteger();
+        DetailPipeline pipeline = new DetailPipeline(config(2, 2, 10), executor,
+                DetailPipelineTest::page, DetailPipelineTest::details, batch -> {
+                    if (writes.incrementAndGet() == 1) {
+                        throw new SQLException("connection reset");
+                    }
+                    batches.add(batch);
+                }, loggerMock);
+
+        pipeline.start();
+        pipeline.submit("/car1");
+        pipeline.submit("/car2");
+        pipeline.finish();
+
+        assertEquals(2, writes.get());
+        assertEquals(2, persistedCount());
+        assertEquals(2, pipeline.getMetrics().get(2).getProcessed());
+    }
+
+    @Test
+    void testSubmit_BlocksWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        DetailPipeline pipeline = new DetailPipeline(config(1, 1, 10), executor, link -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return page(link);
+        }, DetailPipelineTest::details, batches::add, loggerMock);
+
+        pipeline.start();
+        pipeline.submit("/car1");
+        pipeline.submit("/car2");
+
+        Thread producer = Thread.ofVirtual().start(() -> {
+            try {
+                pipeline.submit("/car3");
+                pipeline.submit("/car4");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.join(200);
+        assertTrue(producer.isAlive(), "Producer should be blocked by the bounded queue");
+
+        release.countDown();
+        producer.join();
+        pipeline.finish();
+
+        assertEquals(4, persistedCount());
+    }
+}
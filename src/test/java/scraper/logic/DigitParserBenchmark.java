@@ -0,0 +1,48 @@
+package scraper.logic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DigitParserBenchmark {
+    private final String[] fields = {"185 000 km", "1 598 cm³", "110 CP", "5", "4", "2012", "7 500 €"};
+
+    @Benchmark
+    public void regexReplace(Blackhole blackhole) {
+        for (String field : fields) {
+            blackhole.consume(Integer.parseInt(field.replaceAll("\\D", "")));
+        }
+    }
+
+    @Benchmark
+    public void digitParser(Blackhole blackhole) {
+        for (String field : fields) {
+            blackhole.consume(DigitParser.parseDigits(field));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DigitParserBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,28 @@
+package scraper.logic;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DigitParserTest {
+
+    @Test
+    void testParseDigits_IgnoresSeparatorsAndUnits() {
+        assertEquals(185000, DigitParser.parseDigits("185 000 km"));
+        assertEquals(1598, DigitParser.parseDigits("1 598 cm³"));
+        assertEquals(110, DigitParser.parseDigits("110 CP"));
+        assertEquals(7500, DigitParser.parseDigits(new StringBuilder("7 500 €")));
+    }
+
+    @Test
+    void testParseDigits_NoDigits_ThrowsNumberFormatException() {
+        assertThrows(NumberFormatException.class, () -> DigitParser.parseDigits("€"));
+        assertThrows(NumberFormatException.class, () -> DigitParser.parseDigits(""));
+    }
+
+    @Test
+    void testParseDigits_Overflow_ThrowsNumberFormatException() {
+        assertEquals(Integer.MAX_VALUE, DigitParser.parseDigits("2 147 483 647"));
+        assertThrows(NumberFormatException.class, () -> DigitParser.parseDigits("2 147 483 648"));
+    }
+}
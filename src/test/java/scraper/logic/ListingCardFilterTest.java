@@ -0,0 +1,38 @@
+package scraper.logic;
+
+import org.junit.jupiter.api.Test;
+import scraper.config.ScraperConfig;
+import scraper.model.ListingCard;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListingCardFilterTest {
+    private final ListingCardFilter filter = ListingCardFilter.forSearch(
+            new ScraperConfig.Builder().maxEurPrice(10000).build(), "Renault Megane");
+
+    @Test
+    void testAcceptsMatchingCard() {
+        assertTrue(filter.test(new ListingCard("/car", "Renault Megane III", "9 500 €", "azi")));
+    }
+
+    @Test
+    void testRejectsWrongTitleOrHighPrice() {
+        assertFalse(filter.test(new ListingCard("/car", "Renault Scenic", "9 500 €", null)));
+        assertFalse(filter.test(new ListingCard("/car", "Renault Megane III", "12 000 €", null)));
+    }
+
+    @Test
+    void testUnknownValuesPass() {
+        assertTrue(filter.test(new ListingCard("/car", null, null, null)));
+        assertTrue(filter.test(new ListingCard("/car", "", "negociabil", null)));
+        assertTrue(filter.test(new ListingCard("/car", "Renault Megane", "250 000 lei", null)));
+    }
+
+    @Test
+    void testDisabledPrefilterAcceptsEverything() {
+        ListingCardFilter disabled = ListingCardFilter.forSearch(
+                new ScraperConfig.Builder().cardPrefilter(false).build(), "Renault Megane");
+
+        assertTrue(disabled.test(new ListingCard("/car", "Dacia Logan", "99 000 €", null)));
+    }
+}
@@ -0,0 +1,62 @@
+package scraper.logic;
+
+import org.junit.jupiter.api.Test;
+import scraper.model.CarDetails;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceStatsTest {
+    private final PriceStats stats = new PriceStats(50000, 200000);
+
+    private static CarDetails car(int eurPrice, int mileage, String adType) {
+        return new CarDetails.Builder().eurPrice(eurPrice).mileage(mileage).adType(adType).build();
+    }
+
+    @Test
+    void testGetAvgPrice_MinMaxEntry_Success() {
+        CarDetails car1 = car(2000, 100000, "Vând");
+        CarDetails car2 = car(8000, 100000, "Vând");
+        stats.recordAll(List.of(car1, car2));
+
+        assertEquals(5000, stats.getAvgPrice());
+        assertEquals(car1, stats.getMinEntry());
+        assertEquals(car2, stats.getMaxEntry());
+        assertEquals(2, stats.getCount());
+    }
+
+    @Test
+    void testGetAvgPrice_MinMaxEntry_OneBuyAd_Success() {
+        CarDetails car2 = car(8000, 100000, "Vând");
+        stats.recordAll(List.of(car(2000, 100000, "Cumpăr"), car2));
+
+        assertEquals(8000, stats.getAvgPrice());
+        assertEquals(car2, stats.getMinEntry());
+        assertEquals(car2, stats.getMaxEntry());
+    }
+
+    @Test
+    void testGetAvgPrice_InvalidMileage() {
+        stats.recordAll(List.of(car(2000, 300000, "Vând"), car(8000, 100000, "Vând")));
+
+        assertEquals(8000, stats.getAvgPrice());
+    }
+
+    @Test
+    void testGetAvgPrice_MinMaxEntry_BuyAds_ThrowsRuntimeException() {
+        stats.recordAll(List.of(car(2000, 100000, "Cumpăr"), car(8000, 100000, "Cumpăr")));
+
+        assertThrows(RuntimeException.class, stats::getAvgPrice);
+        assertThrows(RuntimeException.class, stats::getMinEntry);
+        assertThrows(RuntimeException.class, stats::getMaxEntry);
+    }
+
+    @Test
+    void testGetAvgPrice_MinMaxEntry_Empty_ThrowsRuntimeException() {
+        assertEquals(0, stats.getCount());
+        assertThrows(RuntimeException.class, stats::getAvgPrice);
+        assertThrows(RuntimeException.class, stats::getMinEntry);
+        assertThrows(RuntimeException.class, stats::getMaxEntry);
+    }
+}
@@ -1,29 +1,39 @@
 package scraper.logic;
 
-import org.jsoup.Connection;
 import org.jsoup.nodes.Element;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
+import scraper.config.ScraperConfig;
 import scraper.database.DatabaseManager;
+import scraper.http.FetchedPage;
+import scraper.http.PageFetcher;
+import scraper.http.StreamingDocumentReader;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.select.Elements;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import scraper.model.CarDetails;
+import scraper.model.ListingCard;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -31,7 +41,7 @@ import static org.mockito.Mockito.*;
 
 class ScraperTest {
     DatabaseManager databaseManagerMock;
-    Connection connectionMock;
+    PageFetcher pageFetcherMock;
     WebDriver webDriverMock;
     Logger loggerMock;
 
@@ -42,10 +52,10 @@ class ScraperTest {
     @BeforeEach
     void setUp() {
         databaseManagerMock = mock(DatabaseManager.class);
-        connectionMock = mock(Connection.class);
+        pageFetcherMock = mock(PageFetcher.class);
         webDriverMock = mock(WebDriver.class);
         loggerMock = mock(Logger.class);
-        scraper = spy(new Scraper(webDriverMock, "https://999.md", "Renault", "Megane", "III (2008 - 2016)", databaseManagerMock, loggerMock));
+        scraper = spy(new Scraper(webDriverMock, "https://999.md", "Renault", "Megane", "III (2008 - 2016)", databaseManagerMock, loggerMock, pageFetcherMock, ScraperConfig.defaults()));
         System.setOut(new PrintStream(outContent));
     }
 
@@ -54,8 +64,12 @@ class ScraperTest {
         System.setOut(originalOut);
     }
 
+    private FetchedPage detailPage(String carLink, String html) {
+        return new FetchedPage("https://999.md" + carLink, html.getBytes(StandardCharsets.UTF_8), "UTF-8");
+    }
+
     @Test
-    void testExtractDetailedCarInfo_Success() throws IOException {
+    void testParseDetailPage_Success() {
         String carLink = "/car";
         String html = "<h1>Renault Megane</h1>" +
                 "<div class=\"styles_aside__0m8KW\">" +
@@ -99,40 +113,52 @@ class ScraperTest {
                 "<li><span class=\"styles_group__key__uRhnQ\">Rulaj</span>" +
                 "<span class=\"styles_group__value__XN7OI\">100000 km</span></li>" +
                 "</ul></div></div>";
-        Document doc = Jsoup.parse(html);
+        CarDetails result = scraper.parseDetailPage(detailPage(carLink, html));
+
+        assertNotNull(result, "scraper.model.CarDetails should not be null");
+        assertEquals("https://999.md/car", result.getLink(), "Link should match");
+        assertEquals("Renault Megane III (2008 - 2016)", result.getName(), "Name should match");
+        assertEquals("Renault Megane III (2008 - 2016)", result.getModel(), "Model key should match");
+        assertEquals(15000, result.getEurPrice(), "Price should match");
+        assertEquals(100000, result.getMileage(), "Mileage should match");
+        assertEquals("2023-10-01", result.getUpdateDate(), "Update date should match");
+        assertEquals("Vând", result.getAdType(), "Ad type should match");
+        assertEquals("Orhei", result.getRegion(), "Region should match");
+        assertEquals("John", result.getAuthor(), "Author should match");
+        assertEquals(2016, result.getYearOfFabrication(), "Year should match");
+        assertEquals("Stânga", result.getWheelSide(), "Wheel side should match");
+        assertEquals(5, result.getNrOfSeats(), "Number of seats should match");
+        assertEquals("Sedan", result.getBody(), "Body should match");
+        assertEquals(4, result.getNrOfDoors(), "Number of doors should match");
+        assertEquals(1800, result.getEngineCapacity(), "Engine capacity should match");
+        assertEquals(132, result.getHorsepower(), "Horsepower should match");
+        assertEquals("Benzină", result.getPetrolType(), "Petrol type should match");
+        assertEquals("Automat", result.getGearsType(), "Gears type should match");
+        assertEquals("Față", result.getTractionType(), "Traction type should match");
+        assertEquals("Alb", result.getColor(), "Color should match");
+    }
+
+    @Test
+    void testParseCarDetails_MissingGenerationUsesConfiguredModelKey() {
+        String html = "<h1>Renault Megane 1.5 dCi</h1>" +
+                "<div class=\"styles_aside__0m8KW\">" +
+                "<span class=\"styles_sidebar__main__DaXQC\">9000 €</span>" +
+                "</div>" +
+                "<div class=\"styles_features__right__Sn6fV\">" +
+                "<div class=\"styles_group__aota8\">" +
+                "<ul>" +
+                "<li><span class=\"styles_group__key__uRhnQ\">Rulaj</span>" +
+                "<span class=\"styles_group__value__XN7OI\">180000 km</span></li>" +
+                "</ul></div></div>";
 
-        try (var jsoupMock = mockStatic(Jsoup.class)) {
-            when(Jsoup.connect(anyString())).thenReturn(connectionMock);
-            when(connectionMock.userAgent(anyString())).thenReturn(connectionMock);
-            when(connectionMock.get()).thenReturn(doc);
-
-            CarDetails result = scraper.extractDetailedCarInfo(carLink);
-
-            assertNotNull(result, "scraper.model.CarDetails should not be null");
-            assertEquals("https://999.md/car", result.getLink(), "Link should match");
-            assertEquals("Renault Megane III (2008 - 2016)", result.getName(), "Name should match");
-            assertEquals(15000, result.getEurPrice(), "Price should match");
-            assertEquals(100000, result.getMileage(), "Mileage should match");
-            assertEquals("2023-10-01", result.getUpdateDate(), "Update date should match");
-            assertEquals("Vând", result.getAdType(), "Ad type should match");
-            assertEquals("Orhei", result.getRegion(), "Region should match");
-            assertEquals("John", result.getAuthor(), "Author should match");
-            assertEquals(2016, result.getYearOfFabrication(), "Year should match");
-            assertEquals("Stânga", result.getWheelSide(), "Wheel side should match");
-            assertEquals(5, result.getNrOfSeats(), "Number of seats should match");
-            assertEquals("Sedan", result.getBody(), "Body should match");
-            assertEquals(4, result.getNrOfDoors(), "Number of doors should match");
-            assertEquals(1800, result.getEngineCapacity(), "Engine capacity should match");
-            assertEquals(132, result.getHorsepower(), "Horsepower should match");
-            assertEquals("Benzină", result.getPetrolType(), "Petrol type should match");
-            assertEquals("Automat", result.getGearsType(), "Gears type should match");
-            assertEquals("Față", result.getTractionType(), "Traction type should match");
-            assertEquals("Alb", result.getColor(), "Color should match");
-        }
-    }
-
-    @Test
-    void testExtractDetailedCarInfo_InvalidPrice() throws IOException {
+        CarDetails result = scraper.parseCarDetails("https://999.md/car", Jsoup.parse(html));
+
+        assertEquals("Renault Megane 1.5 dCi", result.getName());
+        assertEquals("Renault Megane III (2008 - 2016)", result.getModel());
+    }
+
+    @Test
+    void testParseDetailPage_InvalidPrice() {
         String carLink = "/car";
         String html = "<h1>Renault Megane</h1>" +
                 "<div class=\"styles_aside__0m8KW\">" +
@@ -144,21 +170,13 @@ class ScraperTest {
                 "<li><span class=\"styles_group__key__uRhnQ\">Rulaj</span>" +
                 "<span class=\"styles_group__value__XN7OI\">100000 km</span></li>" +
                 "</ul></div></div>";
-        Document doc = Jsoup.parse(html);
+        CarDetails result = scraper.parseDetailPage(detailPage(carLink, html));
 
-        try (var jsoupMock = mockStatic(Jsoup.class)) {
-            jsoupMock.when(() -> Jsoup.connect(anyString())).thenReturn(mock(org.jsoup.Connection.class));
-            when(Jsoup.connect(anyString())).thenReturn(connectionMock);
-            when(connectionMock.userAgent(anyString())).thenReturn(connectionMock);
-            when(connectionMock.get()).thenReturn(doc);
-            CarDetails result = scraper.extractDetailedCarInfo(carLink);
-
-            assertNull(result, "Should return null for invalid price");
-        }
+        assertNull(result, "Should return null for invalid price");
     }
 
     @Test
-    void testExtractDetailedCarInfo_InvalidMileage() throws IOException {
+    void testParseDetailPage_InvalidMileage() {
         String carLink = "/car";
         String html = "<h1>Renault Megane</h1>" +
                 "<div class=\"styles_aside__0m8KW\">" +
@@ -170,20 +188,13 @@ class ScraperTest {
                 "<li><span class=\"styles_group__key__uRhnQ\">Rulaj</span>" +
                 "<span class=\"styles_group__value__XN7OI\">50 km</span></li>" +
                 "</ul></div></div>";
-        Document doc = Jsoup.parse(html);
-
-        try (var jsoupMock = mockStatic(Jsoup.class)) {
-            when(Jsoup.connect(anyString())).thenReturn(connectionMock);
-            when(connectionMock.userAgent(anyString())).thenReturn(connectionMock);
-            when(connectionMock.get()).thenReturn(doc);
-            CarDetails result = scraper.extractDetailedCarInfo(carLink);
+        CarDetails result = scraper.parseDetailPage(detailPage(carLink, html));
 
-            assertNull(result, "Should return null for invalid mileage");
-        }
+        assertNull(result, "Should return null for invalid mileage");
     }
 
     @Test
-    void testExtractDetailedCarInfo_InvalidTitle() throws IOException {
+    void testParseDetailPage_InvalidTitle() {
         String carLink = "/car";
         String html = "<h1>Dacia Sandero Stepway</h1>" +
                 "<div class=\"styles_aside__0m8KW\">" +
@@ -195,22 +206,15 @@ class ScraperTest {
                 "<li><span class=\"styles_group__key__uRhnQ\">Rulaj</span>" +
                 "<span class=\"styles_group__value__XN7OI\">5000 km</span></li>" +
                 "</ul></div></div>";
-        Document doc = Jsoup.parse(html);
-
-        try (var jsoupMock = mockStatic(Jsoup.class)) {
-            when(Jsoup.connect(anyString())).thenReturn(connectionMock);
-            when(connectionMock.userAgent(anyString())).thenReturn(connectionMock);
-            when(connectionMock.get()).thenReturn(doc);
-            CarDetails result = scraper.extractDetailedCarInfo(carLink);
+        CarDetails result = scraper.parseDetailPage(detailPage(carLink, html));
 
-            assertNull(result, "Should return null for invalid title");
-        }
+        assertNull(result, "Should return null for invalid title");
     }
 
     @Test
     void testPrintResults_Success() {
-        List<CarDetails> finalProducts = new ArrayList<>();
-        finalProducts.add(new CarDetails.Builder().link("https://999.md/car1")
+        PriceStats stats = new PriceStats(200000, 400000);
+        stats.record(new CarDetails.Builder().link("https://999.md/car1")
                 .name(null)
                 .eurPrice(50)
                 .mileage(210000)
@@ -229,7 +233,7 @@ class ScraperTest {
                 .gearsType(null)
                 .tractionType(null)
                 .color(null).build());
-        finalProducts.add(new CarDetails.Builder().link("https://999.md/car2")
+        stats.record(new CarDetails.Builder().link("https://999.md/car2")
                 .name(null)
                 .eurPrice(100)
                 .mileage(210000)
@@ -249,7 +253,7 @@ class ScraperTest {
                 .tractionType(null)
                 .color(null).build());
 
-        scraper.printResults(finalProducts);
+        scraper.printResults(stats);
         String expectedOutput = String.format("Max price: 100 (Link: https://999.md/car2)%n" +
                 "Min price: 50 (Link: https://999.md/car1)%n" +
                 "Average price: 75.00%n");
@@ -258,86 +262,68 @@ class ScraperTest {
 
     @Test
     void testPrintResults_EmptyList_ThrowsException() {
-        List<CarDetails> finalProducts = new ArrayList<>();
+        PriceStats stats = new PriceStats(200000, 400000);
 
         RuntimeException exception = assertThrows(RuntimeException.class,
-                () -> scraper.printResults(finalProducts),
+                () -> scraper.printResults(stats),
                 "Should throw RuntimeException for empty list");
         assertEquals("Product list is empty or null", exception.getMessage());
         assertTrue(outContent.toString().isEmpty(), "No output should be printed");
     }
 
     @Test
-    void testGetIntegerFromSection_Success() {
-        Map<String, String> map = new HashMap<>();
-        map.put("Număr de locuri", "5");
-        Integer result = scraper.getIntegerFromSection(map, "Număr de locuri");
-        assertEquals(5, result, "The result should be equal");
-    }
-
-    @Test
-    void testGetIntegerFromSection_InvalidInteger_ThrowsNumberFormatException() {
-        Map<String, String> map = new HashMap<>();
-        map.put("Număr de locuri", "a");
-        assertThrows(NumberFormatException.class, () -> scraper.getIntegerFromSection(map, "Număr de locuri"));
-    }
-
-    @Test
-    void testGetIntegerFromSection_EmptyMap_ReturnsNull() {
-        Map<String, String> map = new HashMap<>();
-        Integer result = scraper.getIntegerFromSection(map, "Număr de locuri");
-        assertNull(result);
-    }
-
-    @Test
-    void testGetIntegerFromSection_KeyNotFound_ReturnsNull() {
-        Map<String, String>  map = new HashMap<>();
-        map.put("Număr uși", "4");
-        Integer result = scraper.getIntegerFromSection(map, "Număr de locuri");
-        assertNull(result);
-    }
-
-    @Test
-    void testExtractSection_Success() {
+    void testExtractFeatures_MapsLabelsToTypedFields() {
         String html = "<h1>Renault Megane</h1>" +
-                "<div class=\"styles_aside__0m8KW\">" +
-                "<p class=\"styles_date__voWnk\">Data actualizării: 2023-10-01</p>" +
-                "<p class=\"styles_type___J9Dy\">Tip: Vând</p>" +
-                "<span class=\"styles_sidebar__main__DaXQC\">15000 €</span>" +
-                "<span class=\"styles_address__text__duvKg\">Orhei</span>" +
-                "<a class=\"styles_owner__login__VKE71\">John</a>" +
-                "</div>" +
                 "<div class=\"styles_features__left__ON_QP\">" +
                 "<div class=\"styles_group__aota8\">" +
                 "<ul>" +
                 "<li><span class=\"styles_group__key__uRhnQ\">Generație</span>" +
                 "<span class=\"styles_group__value__XN7OI\">III (2008 - 2016)</span></li>" +
+                "</ul></div></div>" +
+                "<div class=\"styles_features__right__Sn6fV\">" +
+                "<div class=\"styles_group__aota8\">" +
+                "<ul>" +
+                "<li><span class=\"styles_group__key__uRhnQ\">Număr de locuri</span>" +
+                "<span class=\"styles_group__value__XN7OI\">5</span></li>" +
+                "<li><span class=\"styles_group__key__uRhnQ\">Volan</span>" +
+                "<a class=\"styles_group__value__XN7OI\">Stânga</a></li>" +
+                "<li><span class=\"styles_group__key__uRhnQ\">Stare</span>" +
+                "<span class=\"styles_group__value__XN7OI\">Cu rulaj</span></li>" +
                 "</ul></div></div>";
         Document doc = Jsoup.parse(html);
-        Map<String, String> map = new HashMap<>();
-        scraper.extractSection(doc, "div.styles_features__left__ON_QP > div.styles_group__aota8 > ul > li", map);
-        Map<String, String> expected = Map.of("Generație", "III (2008 - 2016)");
-        assertEquals(expected, map);
+        CarDetails.Builder builder = new CarDetails.Builder();
+
+        assertEquals("III (2008 - 2016)", scraper.extractFeatures(doc, builder));
+        CarDetails details = builder.build();
+        assertEquals(5, details.getNrOfSeats());
+        assertEquals("Stânga", details.getWheelSide());
+        assertNull(details.getMileage());
     }
 
     @Test
-    void testExtractSection_ReturnsEmptyMap() {
+    void testExtractFeatures_NoFeatures_ReturnsNullGeneration() {
         String html = "<h1>Renault Megane</h1>" +
-                "<div class=\"styles_aside__0m8KW\">" +
-                "<p class=\"styles_date__voWnk\">Data actualizării: 2023-10-01</p>" +
-                "<p class=\"styles_type___J9Dy\">Tip: Vând</p>" +
-                "<span class=\"styles_sidebar__main__DaXQC\">15000 €</span>" +
-                "<span class=\"styles_address__text__duvKg\">Orhei</span>" +
-                "<a class=\"styles_owner__login__VKE71\">John</a>" +
-                "</div>" +
                 "<div class=\"styles_features__left__ON_QP\">" +
                 "<div class=\"styles_group__aota8\">" +
                 "<ul>" +
                 "</ul></div></div>";
         Document doc = Jsoup.parse(html);
-        Map<String, String> map = new HashMap<>();
-        scraper.extractSection(doc, "div.styles_features__left__ON_QP > div.styles_group__aota8 > ul > li", map);
-        assertTrue(map.isEmpty());
+        CarDetails.Builder builder = new CarDetails.Builder();
+
+        assertNull(scraper.extractFeatures(doc, builder));
+        assertNull(builder.build().getNrOfSeats());
+    }
+
+    @Test
+    void testExtractFeatures_InvalidInteger_ThrowsNumberFormatException() {
+        String html = "<div class=\"styles_features__right__Sn6fV\">" +
+                "<div class=\"styles_group__aota8\">" +
+                "<ul>" +
+                "<li><span class=\"styles_group__key__uRhnQ\">Număr de locuri</span>" +
+                "<span class=\"styles_group__value__XN7OI\">a</span></li>" +
+                "</ul></div></div>";
+        Document doc = Jsoup.parse(html);
+        assertThrows(NumberFormatException.class, () -> scraper.extractFeatures(doc, new CarDetails.Builder()));
     }
 
     @Test
@@ -382,7 +368,7 @@ class ScraperTest {
                 "</div>";
         Document doc = Jsoup.parse(html);
         Elements items = doc.select("div.styles_aside__0m8KW");
-        assertEquals("Vând", scraper.getAdInfo(items, "p.styles_type___J9Dy"));
+        assertEquals("Vând", scraper.getAdInfo(items, PageSelector.AD_TYPE));
     }
 
     @Test
@@ -393,7 +379,7 @@ class ScraperTest {
                 "</div>";
         Document doc = Jsoup.parse(html);
         Elements items = doc.select("div.styles_aside__0m8KW");
-        assertNull(scraper.getAdInfo(items, "p.styles_type___J9Dy"));
+        assertNull(scraper.getAdInfo(items, PageSelector.AD_TYPE));
     }
 
     @Test
@@ -405,7 +391,7 @@ class ScraperTest {
                 "</div>";
         Document doc = Jsoup.parse(html);
         Elements items = doc.select("div.styles_aside__0m8KW");
-        assertEquals("John", scraper.getString(items, "a.styles_owner__login__VKE71"));
+        assertEquals("John", scraper.getString(items, PageSelector.AUTHOR));
     }
 
     @Test
@@ -416,277 +402,75 @@ class ScraperTest {
                 "</div>";
         Document doc = Jsoup.parse(html);
         Elements items = doc.select("div.styles_aside__0m8KW");
-        assertNull(scraper.getString(items, "a.styles_owner__login__VKE71"));
+        assertNull(scraper.getString(items, PageSelector.AUTHOR));
     }
 
     @Test
-    void testCheckFinalProducts_ThrowsIllegalArgumentException() {
-        assertThrows(IllegalArgumentException.class, () -> scraper.checkFinalProducts(new ArrayList<>()));
+    void testPrintResults_NullStats_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> scraper.printResults(null));
     }
 
     @Test
-    void testGetAvgPrice_MinMaxEntry_Success() {
-        CarDetails car1 = new CarDetails.Builder().link(null)
-                .name(null)
-                .eurPrice(2000)
-                .mileage(100000)
-                .updateDate(null)
-                .adType("Vând")
-                .region(null)
-                .author(null)
-                .yearOfFabrication(null)
-                .wheelSide(null)
-                .nrOfSeats(null)
-                .body(null)
-                .nrOfDoors(null)
-                .engineCapacity(null)
-                .horsepower(null)
-                .petrolType(null)
-                .gearsType(null)
-                .tractionType(null)
-                .color(null).build();
-        CarDetails car2 = new CarDetails.Builder().link(null)
-                .name(null)
-                .eurPrice(8000)
-                .mileage(100000)
-                .updateDate(null)
-                .adType("Vând")
-                .region(null)
-                .author(null)
-                .yearOfFabrication(null)
-                .wheelSide(null)
-                .nrOfSeats(null)
-                .body(null)
-                .nrOfDoors(null)
-                .engineCapacity(null)
-                .horsepower(null)
-                .petrolType(null)
-                .gearsType(null)
-                .tractionType(null)
-                .color(null).build();
-        List<CarDetails> list = List.of(car1, car2);
-        assertEquals(5000, scraper.getAvgPrice(list, 50000, 200000));
-        assertEquals(car1, scraper.getMinEntry(list));
-        assertEquals(car2, scraper.getMaxEntry(list));
-    }
-
-    @Test
-    void testGetAvgPrice_MinMaxEntry_OneBuyAd_Success() {
-        CarDetails car1 = new CarDetails.Builder().link(null)
-                .name(null)
-                .eurPrice(2000)
-                .mileage(100000)
-                .updateDate(null)
-                .adType("Cumpăr")
-                .region(null)
-                .author(null)
-                .yearOfFabrication(null)
-                .wheelSide(null)
-                .nrOfSeats(null)
-                .body(null)
-                .nrOfDoors(null)
-                .engineCapacity(null)
-                .horsepower(null)
-                .petrolType(null)
-                .gearsType(null)
-                .tractionType(null)
-                .color(null).build();
-        CarDetails car2 = new CarDetails.Builder().link(null)
-                .name(null)
-                .eurPrice(8000)
-                .mileage(100000)
-                .updateDate(null)
-                .adType("Vând")
-                .region(null)
-                .author(null)
-                .yearOfFabrication(null)
-                .wheelSide(null)
-                .nrOfSeats(null)
-                .body(null)
-                .nrOfDoors(null)
-                .engineCapacity(null)
-                .horsepower(null)
-                .petrolType(null)
-                .gearsType(null)
-                .tractionType(null)
-                .color(null).build();
-        List<CarDetails> list = List.of(car1, car2);
-        assertEquals(8000, scraper.getAvgPrice(list, 50000, 200000));
-        assertEquals(car2, scraper.getMinEntry(list));
-        assertEquals(car2, scraper.getMaxEntry(list));
-    }
+    void testReportResults_withEmptyFinalProducts() throws SQLException {
+        scraper.reportResults(new PriceStats(200000, 400000));
 
-    @Test
-    void testGetAvgPrice_InvalidMileage() {
-        CarDetails car1 = new CarDetails.Builder().link(null)
-                .name(null)
-                .eurPrice(2000)
-                .mileage(300000)
-                .updateDate(null)
-                .adType("Vând")
-                .region(null)
-                .author(null)
-                .yearOfFabrication(null)
-                .wheelSide(null)
-                .nrOfSeats(null)
-                .body(null)
-                .nrOfDoors(null)
-                .engineCapacity(null)
-                .horsepower(null)
-                .petrolType(null)
-                .gearsType(null)
-                .tractionType(null)
-                .color(null).build();
-        CarDetails car2 = new CarDetails.Builder().link(null)
-                .name(null)
-                .eurPrice(8000)
-                .mileage(100000)
-                .updateDate(null)
-                .adType("Vând")
-                .region(null)
-                .author(null)
-                .yearOfFabrication(null)
-                .wheelSide(null)
-                .nrOfSeats(null)
-                .body(null)
-                .nrOfDoors(null)
-                .engineCapacity(null)
-                .horsepower(null)
-                .petrolType(null)
-                .gearsType(null)
-                .tractionType(null)
-                .color(null).build();
-        List<CarDetails> list = List.of(car1, car2);
-        assertEquals(8000, scraper.getAvgPrice(list, 50000, 200000));
+        verify(loggerMock).info("No products found.");
+        verify(databaseManagerMock, never()).saveCars(any());
     }
 
     @Test
-    void testGetAvgPrice_MinMaxEntry_BuyAds_ThrowsRuntimeException() {
-        CarDetails car1 = new CarDetails.Builder().link(null)
-                .name(null)
-                .eurPrice(2000)
-                .mileage(100000)
-                .updateDate(null)
-                .adType("Cumpăr")
-                .region(null)
-                .author(null)
-                .yearOfFabrication(null)
-                .wheelSide(null)
-                .nrOfSeats(null)
-                .body(null)
-                .nrOfDoors(null)
-                .engineCapacity(null)
-                .horsepower(null)
-                .petrolType(null)
-                .gearsType(null)
-                .tractionType(null)
-                .color(null).build();
-        CarDetails car2 = new CarDetails.Builder().link(null)
-                .name(null)
-                .eurPrice(8000)
-                .mileage(100000)
-                .updateDate(null)
-                .adType("Cumpăr")
-                .region(null)
-                .author(null)
-                .yearOfFabrication(null)
-                .wheelSide(null)
-                .nrOfSeats(null)
-                .body(null)
-                .nrOfDoors(null)
-                .engineCapacity(null)
-                .horsepower(null)
-                .petrolType(null)
-                .gearsType(null)
-                .tractionType(null)
-                .color(null).build();
-        List<CarDetails> list = List.of(car1, car2);
-        assertThrows(RuntimeException.class, () -> scraper.getAvgPrice(list, 50000, 200000));
-        assertThrows(RuntimeException.class, () -> scraper.getMinEntry(list));
-        assertThrows(RuntimeException.class, () -> scraper.getMaxEntry(list));
+    void testSaveBatch_SavesAndAccumulatesStats() throws SQLException {
+        List<CarDetails> batch = List.of(new CarDetails.Builder().link("https://999.md/car1").build());
+        PriceStats stats = new PriceStats(200000, 400000);
 
-    }
+        scraper.saveBatch(batch, stats);
 
-    @Test
-    void testGetAvgPrice_MinMaxEntry_EmptyList_ThrowsRuntimeException() {
-        List<CarDetails> list = new ArrayList<>();
-        assertThrows(RuntimeException.class, () ->scraper.getAvgPrice(list, 50000, 200000));
-        assertThrows(RuntimeException.class, () -> scraper.getMinEntry(list));
-        assertThrows(RuntimeException.class, () -> scraper.getMaxEntry(list));
+        verify(databaseManagerMock).saveCars(batch);
+        assertEquals(1, stats.getCount());
     }
 
     @Test
-    void testSaveResults_withEmptyFinalProducts() throws SQLException {
-        List<CarDetails> emptyList = Collections.emptyList();
+    void testSaveBatch_RefreshesPriceStatsWhenDue() throws SQLException {
+        Scraper eagerScraper = new Scraper(webDriverMock, "https://999.md", "Renault", "Megane", "III (2008 - 2016)",
+                databaseManagerMock, loggerMock, pageFetcherMock,
+                new ScraperConfig.Builder().priceStatsRefreshInterval(Duration.ZERO).build());
+        doThrow(new SQLException("view missing")).when(databaseManagerMock).refreshPriceStats();
 
-        scraper.saveResults(emptyList);
+        eagerScraper.saveBatch(List.of(new CarDetails.Builder().link("https://999.md/car1").build()),
+                new PriceStats(200000, 400000));
+        scraper.saveBatch(List.of(), new PriceStats(200000, 400000));
 
-        verify(loggerMock).info("No products found.");
-        verify(databaseManagerMock, never()).saveCars(any());
+        verify(databaseManagerMock, times(1)).refreshPriceStats();
+        verify(loggerMock).warn(anyString(), eq("view missing"));
     }
 
     @Test
-    void testExtractCarDetails_noLinkElement() {
-        Element carElement = mock(Element.class);
-        when(carElement.selectFirst("a.AdPhoto_info__link__OwhY6")).thenReturn(null);
+    void testLogRunMetrics_ReportsSharedDateParseFailures() {
+        DatabaseManagerHelper databaseManagerHelper = new DatabaseManagerHelper();
+        Scraper sharedScraper = new Scraper(webDriverMock, "https://999.md", "Renault", "Megane", "III (2008 - 2016)",
+                databaseManagerMock, loggerMock, pageFetcherMock, ScraperConfig.defaults(), databaseManagerHelper);
+        databaseManagerHelper.parseRomanianDate("not a date");
 
-        List<CarDetails> finalProducts = new ArrayList<>();
+        sharedScraper.logRunMetrics();
 
-        scraper.extractCarDetails(carElement, finalProducts);
-
-        assertTrue(finalProducts.isEmpty());
+        verify(loggerMock).info("Unparseable update dates: {}", 1L);
     }
 
     @Test
-    void testExtractCarDetails_withLinkAndNonNullCarDetails() {
-        Element carElement = mock(Element.class);
-        Element linkElement = mock(Element.class);
-        when(carElement.selectFirst("a.AdPhoto_info__link__OwhY6")).thenReturn(linkElement);
-        when(linkElement.attr("href")).thenReturn("http://car-link");
-
-        CarDetails mockCarDetails = new CarDetails.Builder().link("https://999.md/car1")
-                .name(null)
-                .eurPrice(50)
-                .mileage(210000)
-                .updateDate(null)
-                .adType("Vând")
-                .region(null)
-                .author(null)
-                .yearOfFabrication(null)
-                .wheelSide(null)
-                .nrOfSeats(null)
-                .body(null)
-                .nrOfDoors(null)
-                .engineCapacity(null)
-                .horsepower(null)
-                .petrolType(null)
-                .gearsType(null)
-                .tractionType(null)
-                .color(null).build();
-        doReturn(mockCarDetails).when(scraper).extractDetailedCarInfo("http://car-link");
-
-        List<CarDetails> finalProducts = new ArrayList<>();
-
-        scraper.extractCarDetails(carElement, finalProducts);
+    void testParseDetailPage_ParsesFetchedBody() {
+        String html = "<h1>Dacia Logan</h1>";
+        FetchedPage page = new FetchedPage("https://999.md/car", html.getBytes(StandardCharsets.UTF_8), "UTF-8");
 
-        assertEquals(1, finalProducts.size());
-        assertSame(mockCarDetails, finalProducts.get(0));
+        assertNull(scraper.parseDetailPage(page), "Should return null for invalid title");
     }
 
     @Test
-    void testExtractCarDetails_withLinkAndNullCarDetails() {
-        Element carElement = mock(Element.class);
-        Element linkElement = mock(Element.class);
-        when(carElement.selectFirst("a.AdPhoto_info__link__OwhY6")).thenReturn(linkElement);
-        when(linkElement.attr("href")).thenReturn("http://car-link");
+    void testFetchDetailPage_StreamsRequiredBlocks() throws IOException, InterruptedException {
+        FetchedPage page = new FetchedPage("https://999.md/car", Jsoup.parse("<h1>Dacia Logan</h1>"));
+        when(pageFetcherMock.fetchPage(eq("https://999.md/car"), any(StreamingDocumentReader.class))).thenReturn(page);
 
-        doReturn(null).when(scraper).extractDetailedCarInfo("http://car-link");
-
-        List<CarDetails> finalProducts = new ArrayList<>();
-
-        scraper.extractCarDetails(carElement, finalProducts);
-
-        assertTrue(finalProducts.isEmpty());
+        assertSame(page, scraper.fetchDetailPage("/car"));
+        verify(pageFetcherMock, never()).fetchPage(anyString());
     }
 
     @Test
@@ -701,13 +485,11 @@ class ScraperTest {
             """;
 
         Elements carElements = Jsoup.parse(html).select("div.car");
-        List<String> carLinks = new ArrayList<>();
+        List<ListingCard> cards = new ArrayList<>();
 
-        scraper.selectCar(carElements, carLinks);
+        scraper.selectCar(carElements, cards);
 
-        assertEquals(2, carLinks.size());
-        assertTrue(carLinks.contains("/car1"));
-        assertTrue(carLinks.contains("/car2"));
+        assertEquals(List.of("/car1", "/car2"), cards.stream().map(ListingCard::getHref).toList());
     }
 
     @Test
@@ -722,12 +504,12 @@ class ScraperTest {
             """;
 
         Elements carElements = Jsoup.parse(html).select("div.car");
-        List<String> carLinks = new ArrayList<>();
+        List<ListingCard> cards = new ArrayList<>();
 
-        scraper.selectCar(carElements, carLinks);
+        scraper.selectCar(carElements, cards);
 
-        assertEquals(1, carLinks.size());
-        assertEquals("/car1", carLinks.get(0));
+        assertEquals(1, cards.size());
+        assertEquals("/car1", cards.get(0).getHref());
     }
 
     @Test
@@ -739,139 +521,314 @@ class ScraperTest {
             """;
 
         Elements carElements = Jsoup.parse(html).select("div.car");
-        List<String> carLinks = new ArrayList<>();
+        List<ListingCard> cards = new ArrayList<>();
 
-        scraper.selectCar(carElements, carLinks);
+        scraper.selectCar(carElements, cards);
 
-        assertTrue(carLinks.isEmpty());
+        assertTrue(cards.isEmpty());
     }
 
     @Test
     void testSelectCar_EmptyElements() {
         Elements carElements = new Elements();
-        List<String> carLinks = new ArrayList<>();
+        List<ListingCard> cards = new ArrayList<>();
 
-        scraper.selectCar(carElements, carLinks);
+        scraper.selectCar(carElements, cards);
 
-        assertTrue(carLinks.isEmpty());
+        assertTrue(cards.isEmpty());
     }
 
     @Test
-    void testProcessFutureCarDetail_AllSuccessful() throws Exception {
-        CarDetails car1 = new CarDetails.Builder().build();
-        CarDetails car2 = new CarDetails.Builder().build();
-
-        Future<CarDetails> future1 = mock(Future.class);
-        Future<CarDetails> future2 = mock(Future.class);
+    void testProcessCurrentPage_Success() throws InterruptedException {
+        String html = """
+            <div class="styles_adlist__3YsgA styles_flex__9wOfD">
+                <div class="AdPhoto_wrapper__gAOIH"><a class="AdPhoto_info__link__OwhY6" href="/car1"></a></div>
+                <div class="AdPhoto_wrapper__gAOIH"><a class="AdPhoto_info__link__OwhY6" href="/car2"></a></div>
+            </div>
+            """;
 
-        when(future1.get()).thenReturn(car1);
-        when(future2.get()).thenReturn(car2);
+        when(webDriverMock.getPageSource()).thenReturn(html);
 
-        List<Future<CarDetails>> futures = List.of(future1, future2);
-        List<CarDetails> finalProducts = new ArrayList<>();
+        scraper.setJs(mock(JavascriptExecutor.class));
+        DetailPipeline pipeline = mock(DetailPipeline.class);
 
-        scraper.processFutureCarDetail(finalProducts, futures);
+        scraper.processCurrentPage(pipeline);
 
-        assertEquals(2, finalProducts.size());
-        assertTrue(finalProducts.contains(car1));
-        assertTrue(finalProducts.contains(car2));
+        InOrder inOrder = inOrder(pipeline);
+        inOrder.verify(pipeline).submit("/car1");
+        inOrder.verify(pipeline).submit("/car2");
+        inOrder.verifyNoMoreInteractions();
     }
 
     @Test
-    void testProcessFutureCarDetail_WithNullResult() throws Exception {
-        CarDetails car1 = new CarDetails.Builder().build();
+    void testScrape_SavesCollectedAdsWhenPaginationFails() throws Exception {
+        WebDriver driver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+        Scraper failing = spy(new Scraper(driver, "https://999.md", "Renault", "Megane", "III (2008 - 2016)",
+                databaseManagerMock, loggerMock, pageFetcherMock, ScraperConfig.defaults()));
+        doNothing().when(failing).navigateToSearchPage();
+        doNothing().when(failing).selectCarModelAndGeneration();
+        doThrow(new StaleElementReferenceException("listing detached")).when(failing).processAllPages(any());
 
-        Future<CarDetails> future1 = mock(Future.class);
-        Future<CarDetails> future2 = mock(Future.class);
+        assertThrows(StaleElementReferenceException.class, failing::scrape);
 
-        when(future1.get()).thenReturn(car1);
-        when(future2.get()).thenReturn(null);
+        verify(failing).finishRun(any(), any());
+        verify(databaseManagerMock).getPoolMetrics();
+        verify(driver).quit();
+    }
 
-        List<Future<CarDetails>> futures = List.of(future1, future2);
-        List<CarDetails> finalProducts = new ArrayList<>();
+    @Test
+    void testProcessCurrentPage_SkipsCardsWithoutHref() throws InterruptedException {
+        String html = """
+            <div class="styles_adlist__3YsgA styles_flex__9wOfD">
+                <div class="AdPhoto_wrapper__gAOIH"><a class="AdPhoto_info__link__OwhY6"></a></div>
+                <div class="AdPhoto_wrapper__gAOIH"><a class="AdPhoto_info__link__OwhY6" href="/car2"></a></div>
+            </div>
+            """;
 
-        scraper.processFutureCarDetail(finalProducts, futures);
+        when(webDriverMock.getPageSource()).thenReturn(html);
 
-        assertEquals(1, finalProducts.size());
-        assertEquals(car1, finalProducts.get(0));
+        scraper.setJs(mock(JavascriptExecutor.class));
+        DetailPipeline pipeline = mock(DetailPipeline.class);
+
+        scraper.processCurrentPage(pipeline);
+
+        verify(pipeline).submit("/car2");
+        verifyNoMoreInteractions(pipeline);
     }
 
     @Test
-    void testProcessFutureCarDetail_WithException() throws Exception {
-        CarDetails car1 = new CarDetails.Builder().build();
-
-        Future<CarDetails> future1 = mock(Future.class);
-        Future<CarDetails> future2 = mock(Future.class);
+    void testProcessCurrentPage_FailsAfterRetries() {
+        when(webDriverMock.getPageSource()).thenThrow(new RuntimeException("Page source not available"));
 
-        when(future1.get()).thenReturn(car1);
-        when(future2.get()).thenThrow(new ExecutionException("Fail", new RuntimeException()));
+        scraper.setJs(mock(JavascriptExecutor.class));
+        DetailPipeline pipeline = mock(DetailPipeline.class);
 
-        List<Future<CarDetails>> futures = List.of(future1, future2);
-        List<CarDetails> finalProducts = new ArrayList<>();
+        scraper.processCurrentPage(pipeline);
 
-        scraper.processFutureCarDetail(finalProducts, futures);
+        verifyNoInteractions(pipeline);
 
-        assertEquals(1, finalProducts.size());
-        assertEquals(car1, finalProducts.get(0));
+        verify(webDriverMock, times(3)).getPageSource();
     }
 
     @Test
-    void testProcessFutureCarDetail_EmptyInput() {
-        List<Future<CarDetails>> futures = new ArrayList<>();
-        List<CarDetails> finalProducts = new ArrayList<>();
+    void testProcessCurrentPage_NoCarElements() {
+        String emptyHtml = "<div class=\"styles_adlist__3YsgA styles_flex__9wOfD\"></div>"; // no car divs
+
+        when(webDriverMock.getPageSource()).thenReturn(emptyHtml);
+
+        scraper.setJs(mock(JavascriptExecutor.class));
+        DetailPipeline pipeline = mock(DetailPipeline.class);
 
-        scraper.processFutureCarDetail(finalProducts, futures);
+        scraper.processCurrentPage(pipeline);
 
-        assertTrue(finalProducts.isEmpty());
+        verifyNoInteractions(pipeline);
     }
 
     @Test
-    void testProcessCurrentPage_Success() {
+    void testSelectCar_ReadsCardFields() {
         String html = """
-            <div class="styles_adlist__3YsgA styles_flex__9wOfD">
-                <div class="AdPhoto_wrapper__gAOIH"><a class="AdPhoto_info__link__OwhY6" href="/car1"></a></div>
-                <div class="AdPhoto_wrapper__gAOIH"><a class="AdPhoto_info__link__OwhY6" href="/car2"></a></div>
+            <div class="car">
+                <a class="AdPhoto_info__link__OwhY6" href="/car1">Volkswagen Passat</a>
+                <span class="AdPrice_price__2L3eA">7 500 €</span>
+                <span class="AdPhoto_date__1Xz3c">12 mai. 2025</span>
             </div>
             """;
 
-        when(webDriverMock.getPageSource()).thenReturn(html);
+        Elements carElements = Jsoup.parse(html).select("div.car");
+        List<ListingCard> cards = new ArrayList<>();
 
-        doReturn(new CarDetails.Builder().name("Car1").build()).when(scraper).extractDetailedCarInfo("/car1");
-        doReturn(new CarDetails.Builder().name("Car2").build()).when(scraper).extractDetailedCarInfo("/car2");
+        scraper.selectCar(carElements, cards);
 
-        List<CarDetails> result = new ArrayList<>();
+        ListingCard card = cards.get(0);
+        assertEquals("/car1", card.getHref());
+        assertEquals("Volkswagen Passat", card.getTitle());
+        assertEquals("7 500 €", card.getPriceText());
+        assertEquals("12 mai. 2025", card.getDateText());
+    }
 
-        scraper.processCurrentPage(result);
+    @Test
+    void testProcessCurrentPage_UsesListingScript() throws InterruptedException {
+        JavascriptExecutor js = mock(JavascriptExecutor.class);
+        when(js.executeScript(anyString(), any(), any(), any(), any())).thenReturn(List.of(
+                Map.of("href", "/car1", "title", "Renault Megane", "price", "7 500 €"),
+                Map.of("title", "No link")));
+        scraper.setJs(js);
+        DetailPipeline pipeline = mock(DetailPipeline.class);
 
-        assertEquals(2, result.size());
-        assertEquals("Car1", result.get(0).getName());
-        assertEquals("Car2", result.get(1).getName());
+        scraper.processCurrentPage(pipeline);
+
+        verify(pipeline).submit("/car1");
+        verifyNoMoreInteractions(pipeline);
+        verify(webDriverMock, never()).getPageSource();
     }
 
     @Test
-    void testProcessCurrentPage_FailsAfterRetries() {
-        when(webDriverMock.getPageSource()).thenThrow(new RuntimeException("Page source not available"));
+    void testProcessCurrentPage_SkipsCardsRejectedByPrefilter() throws InterruptedException {
+        JavascriptExecutor js = mock(JavascriptExecutor.class);
+        when(js.executeScript(anyString(), any(), any(), any(), any())).thenReturn(List.of(
+                Map.of("href", "/car1", "title", "Renault Megane III", "price", "7 500 €"),
+                Map.of("href", "/car2", "title", "Renault Megane III", "price", "25 000 €"),
+                Map.of("href", "/car3", "title", "Renault Clio", "price", "5 000 €")));
+        scraper.setJs(js);
+        DetailPipeline pipeline = mock(DetailPipeline.class);
 
-        List<CarDetails> result = new ArrayList<>();
+        scraper.processCurrentPage(pipeline);
 
-        scraper.processCurrentPage(result);
+        verify(pipeline).submit("/car1");
+        verifyNoMoreInteractions(pipeline);
+    }
 
-        assertEquals(0, result.size());
+    @Test
+    void testProcessCurrentPage_SkipsKnownUnchangedAds() throws InterruptedException, SQLException {
+        JavascriptExecutor js = mock(JavascriptExecutor.class);
+        when(js.executeScript(anyString(), any(), any(), any(), any())).thenReturn(List.of(
+                Map.of("href", "/ro/1?ref=list", "date", "12 mai. 2025, 14:30"),
+                Map.of("href", "/ro/2", "date", "13 mai. 2025, 09:00"),
+                Map.of("href", "/ro/3", "date", "13 mai. 2025, 09:00"),
+                Map.of("href", "/ro/4")));
+        scraper.setJs(js);
+        Timestamp stored = Timestamp.valueOf("2025-05-12 14:30:00");
+        when(databaseManagerMock.findKnownAds(List.of("https://999.md/ro/1", "https://999.md/ro/2",
+                "https://999.md/ro/3", "https://999.md/ro/4")))
+                .thenReturn(Map.of("https://999.md/ro/1", stored, "https://999.md/ro/2", stored,
+                        "https://999.md/ro/4", stored));
+        DetailPipeline pipeline = mock(DetailPipeline.class);
 
-        verify(webDriverMock, times(3)).getPageSource();
+        scraper.processCurrentPage(pipeline);
+
+        InOrder inOrder = inOrder(pipeline);
+        inOrder.verify(pipeline).submit("/ro/2");
+        inOrder.verify(pipeline).submit("/ro/3");
+        inOrder.verify(pipeline).submit("/ro/4");
+        inOrder.verifyNoMoreInteractions();
+        verify(databaseManagerMock).assignMissingModel(List.of("https://999.md/ro/1"),
+                "Renault Megane III (2008 - 2016)");
     }
 
     @Test
-    void testProcessCurrentPage_NoCarElements() {
-        String emptyHtml = "<div class=\"styles_adlist__3YsgA styles_flex__9wOfD\"></div>"; // no car divs
+    void testProcessCurrentPage_KnownAdsLookupFailureFetchesEverything() throws InterruptedException, SQLException {
+        JavascriptExecutor js = mock(JavascriptExecutor.class);
+        when(js.executeScript(anyString(), any(), any(), any(), any())).thenReturn(List.of(
+                Map.of("href", "/ro/1", "date", "12 mai. 2025, 14:30")));
+        scraper.setJs(js);
+        when(databaseManagerMock.findKnownAds(any())).thenThrow(new SQLException("db down"));
+        DetailPipeline pipeline = mock(DetailPipeline.class);
 
-        when(webDriverMock.getPageSource()).thenReturn(emptyHtml);
+        scraper.processCurrentPage(pipeline);
+
+        verify(pipeline).submit("/ro/1");
+    }
+
+    private Scraper scraperWithKnownAds(ScraperConfig config) throws SQLException {
+        Scraper cutoffScraper = spy(new Scraper(webDriverMock, "https://999.md", "Renault", "Megane",
+                "III (2008 - 2016)", databaseManagerMock, loggerMock, pageFetcherMock, config));
+        JavascriptExecutor js = mock(JavascriptExecutor.class);
+        when(js.executeScript(anyString(), any(), any(), any(), any())).thenReturn(List.of(
+                Map.of("href", "/ro/1", "date", "12 mai. 2025, 14:30"),
+                Map.of("href", "/ro/2", "date", "12 mai. 2025, 14:30")));
+        cutoffScraper.setJs(js);
+        Timestamp stored = Timestamp.valueOf("2025-05-12 14:30:00");
+        when(databaseManagerMock.findKnownAds(any()))
+                .thenReturn(Map.of("https://999.md/ro/1", stored, "https://999.md/ro/2", stored));
+        doReturn(true).when(cutoffScraper).goToNextPage();
+        return cutoffScraper;
+    }
+
+    @Test
+    void testProcessAllPages_StopsAfterConsecutiveKnownAds() throws SQLException {
+        Scraper cutoffScraper = scraperWithKnownAds(new ScraperConfig.Builder().knownAdCutoff(3).build());
+        doReturn(false).when(cutoffScraper).isFullCrawlDay();
+
+        cutoffScraper.processAllPages(mock(DetailPipeline.class));
+
+        verify(cutoffScraper, times(2)).processCurrentPage(any());
+        verify(cutoffScraper, times(1)).goToNextPage();
+    }
+
+    @Test
+    void testProcessAllPages_FullCrawlDayIgnoresCutoff() throws SQLException {
+        Scraper cutoffScraper = scraperWithKnownAds(new ScraperConfig.Builder().knownAdCutoff(3).build());
+        doReturn(true).when(cutoffScraper).isFullCrawlDay();
+        doReturn(true, true, false).when(cutoffScraper).goToNextPage();
 
-        List<CarDetails> result = new ArrayList<>();
+        cutoffScraper.processAllPages(mock(DetailPipeline.class));
 
-        scraper.processCurrentPage(result);
+        verify(cutoffScraper, times(3)).processCurrentPage(any());
+    }
+
+    @Test
+    void testProcessCurrentPage_ScriptFailureFallsBackToPageSource() throws InterruptedException {
+        JavascriptExecutor js = mock(JavascriptExecutor.class);
+        when(js.executeScript(anyString(), any(), any(), any(), any()))
+                .thenThrow(new JavascriptException("querySelectorAll failed"));
+        scraper.setJs(js);
+        when(webDriverMock.getPageSource()).thenReturn("""
+            <div class="styles_adlist__3YsgA styles_flex__9wOfD">
+                <div class="AdPhoto_wrapper__gAOIH"><a class="AdPhoto_info__link__OwhY6" href="/car1"></a></div>
+            </div>
+            """);
+        DetailPipeline pipeline = mock(DetailPipeline.class);
+
+        scraper.processCurrentPage(pipeline);
+
+        verify(pipeline).submit("/car1");
+    }
+
+    @Test
+    void testGoToNextPage_NoNextButton_ReturnsFalse() {
+        when(webDriverMock.findElements(any(By.class))).thenReturn(List.of());
+
+        assertFalse(scraper.goToNextPage());
+    }
+
+    @Test
+    void testGoToNextPage_DisabledNextButton_ReturnsFalse() {
+        WebElement nextButton = mock(WebElement.class);
+        when(nextButton.isEnabled()).thenReturn(false);
+        when(webDriverMock.findElements(any(By.class))).thenReturn(List.of(nextButton));
+        scraper.setJs(mock(JavascriptExecutor.class));
 
-        assertEquals(0, result.size());
+        assertFalse(scraper.goToNextPage());
+        verify(scraper.getJs(), never()).executeScript(anyString(), any());
+    }
+
+    @Test
+    void testGoToNextPage_ClicksAndWaitsForNewListing() {
+        WebElement nextButton = mock(WebElement.class);
+        when(nextButton.isEnabled()).thenReturn(true);
+        when(nextButton.isDisplayed()).thenReturn(true);
+        when(webDriverMock.findElements(any(By.class))).thenReturn(List.of(nextButton));
+        scraper.setWait(mock(WebDriverWait.class));
+        scraper.setJs(mock(JavascriptExecutor.class));
+        when(scraper.getWait().until(any())).thenReturn(true);
+
+        assertTrue(scraper.goToNextPage());
+        verify(scraper.getJs()).executeScript(anyString(), eq(nextButton));
+    }
+
+    @Test
+    void testGoToNextPage_Timeout_ReturnsFalse() {
+        WebElement nextButton = mock(WebElement.class);
+        when(nextButton.isEnabled()).thenReturn(true);
+        when(nextButton.isDisplayed()).thenReturn(true);
+        when(webDriverMock.findElements(any(By.class))).thenReturn(List.of(nextButton));
+        scraper.setWait(mock(WebDriverWait.class));
+        scraper.setJs(mock(JavascriptExecutor.class));
+        when(scraper.getWait().until(any())).thenThrow(new TimeoutException("slow page"));
+
+        assertFalse(scraper.goToNextPage());
+    }
+
+    @Test
+    void testListingReplaced_WaitsUntilOldAdIsStale() {
+        WebElement oldAd = mock(WebElement.class);
+        when(oldAd.getDomAttribute("href")).thenReturn("/car1").thenThrow(new StaleElementReferenceException("gone"));
+        when(webDriverMock.findElements(any(By.class))).thenReturn(List.of(mock(WebElement.class)));
+
+        ExpectedCondition<Boolean> condition = scraper.listingReplaced(oldAd, "/car1");
+
+        assertFalse(condition.apply(webDriverMock));
+        assertTrue(condition.apply(webDriverMock));
     }
 
     @Test
@@ -894,6 +851,21 @@ class ScraperTest {
         verify(js, times(1)).executeScript(anyString(), eq(generationLabel));
     }
 
+    @Test
+    void testModelOptionVisible_FindsOptionThroughRegistrySelector() {
+        scraper.setJs(mock(JavascriptExecutor.class));
+        WebElement option = mock(WebElement.class);
+        when(option.isDisplayed()).thenReturn(false, true);
+        when(scraper.getJs().executeScript(anyString(), eq("div.styles_checkbox__item__bOjAW"), eq("Megane")))
+                .thenReturn(null, option);
+
+        ExpectedCondition<WebElement> condition = scraper.modelOptionVisible();
+
+        assertNull(condition.apply(webDriverMock));
+        assertNull(condition.apply(webDriverMock));
+        assertSame(option, condition.apply(webDriverMock));
+    }
+
     @Test
     void testSelectCarModelAndGeneration_Selected_noScript() {
         scraper.setWait(mock(WebDriverWait.class));
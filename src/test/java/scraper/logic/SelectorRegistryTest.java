@@ -0,0 +1,51 @@
+package scraper.logic;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelectorRegistryTest {
+
+    @Test
+    void testDefaultsCompileEverySelector() {
+        SelectorRegistry registry = SelectorRegistry.defaults();
+        for (PageSelector selector : PageSelector.values()) {
+            assertNotNull(registry.get(selector));
+            assertFalse(registry.query(selector).isBlank());
+        }
+        Document doc = Jsoup.parse("<div class=\"styles_aside__0m8KW\"><p class=\"styles_type___J9Dy\">Tip: Vând</p></div>");
+        assertEquals("Tip: Vând", doc.selectFirst(registry.get(PageSelector.AD_TYPE)).text());
+    }
+
+    @Test
+    void testOverridesFileReplacesRotatedClassNames(@TempDir Path dir) throws IOException {
+        Path overrides = dir.resolve("selectors.properties");
+        Files.writeString(overrides, "detail.type=p.styles_type__NEW42\n");
+
+        SelectorRegistry registry = SelectorRegistry.load(overrides.toString());
+
+        assertEquals("p.styles_type__NEW42", registry.query(PageSelector.AD_TYPE));
+        assertEquals("h1", registry.query(PageSelector.TITLE));
+    }
+
+    @Test
+    void testInvalidSelectorIsRejected() {
+        Properties properties = new Properties();
+        for (PageSelector selector : PageSelector.values()) {
+            properties.setProperty(selector.getKey(), "div");
+        }
+        properties.setProperty(PageSelector.TITLE.getKey(), "h1[");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new SelectorRegistry(properties));
+        assertTrue(exception.getMessage().contains("detail.title"));
+    }
+}